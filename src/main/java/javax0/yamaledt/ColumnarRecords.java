@@ -0,0 +1,171 @@
+package javax0.yamaledt;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact, column oriented storage of test records.
+ * <p>
+ * Every key of the test records has a column, and the key strings are stored only once, in the map of the columns.
+ * The display names are stored in a single array. When all the values of a column are {@link Integer}, {@link Long}
+ * or {@link Double} then the values are stored in an {@code int[]}, {@code long[]} or {@code double[]} array. The
+ * values are boxed only when they are fetched. When a column has values of different types, or values of other
+ * types, then the column falls back to an {@code Object[]} array.
+ * <p>
+ * The records are added one by one, and the maps of the individual records are not retained.
+ */
+final class ColumnarRecords {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Column> columns = new HashMap<>();
+    private String[] displayNames = new String[INITIAL_CAPACITY];
+    private int size;
+
+    void add(TestRecord record) {
+        if (size == displayNames.length) {
+            displayNames = Arrays.copyOf(displayNames, size * 2);
+        }
+        displayNames[size] = record.displayName;
+        if (record.parameters != null) {
+            for (final var entry : record.parameters.entrySet()) {
+                columns.computeIfAbsent(entry.getKey(), k -> new Column()).set(size, entry.getValue());
+            }
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String displayName(int row) {
+        return displayNames[row];
+    }
+
+    /**
+     * Get a value of a record.
+     *
+     * @param row the index of the record
+     * @param key the key of the value
+     * @return the boxed value or {@code null} if the record does not have the key
+     */
+    Object get(int row, String key) {
+        final var column = columns.get(key);
+        return column == null ? null : column.get(row);
+    }
+
+    private enum Kind {INT, LONG, DOUBLE, OBJECT}
+
+    private static final class Column {
+        private final BitSet present = new BitSet();
+        private Kind kind;
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private Object[] objects;
+
+        void set(int row, Object value) {
+            final var valueKind = kindOf(value);
+            if (kind == null) {
+                kind = valueKind;
+            } else if (kind != valueKind && kind != Kind.OBJECT) {
+                toObjects();
+            }
+            ensureCapacity(row + 1);
+            present.set(row);
+            switch (kind) {
+                case INT:
+                    ints[row] = (Integer) value;
+                    break;
+                case LONG:
+                    longs[row] = (Long) value;
+                    break;
+                case DOUBLE:
+                    doubles[row] = (Double) value;
+                    break;
+                default:
+                    objects[row] = value;
+            }
+        }
+
+        Object get(int row) {
+            if (!present.get(row)) {
+                return null;
+            }
+            switch (kind) {
+                case INT:
+                    return ints[row];
+                case LONG:
+                    return longs[row];
+                case DOUBLE:
+                    return doubles[row];
+                default:
+                    return objects[row];
+            }
+        }
+
+        private static Kind kindOf(Object value) {
+            if (value instanceof Integer) {
+                return Kind.INT;
+            }
+            if (value instanceof Long) {
+                return Kind.LONG;
+            }
+            if (value instanceof Double) {
+                return Kind.DOUBLE;
+            }
+            return Kind.OBJECT;
+        }
+
+        /**
+         * Convert the primitive column to an object column boxing the values stored so far.
+         */
+        private void toObjects() {
+            final var boxed = new Object[capacity()];
+            for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+                boxed[row] = get(row);
+            }
+            objects = boxed;
+            ints = null;
+            longs = null;
+            doubles = null;
+            kind = Kind.OBJECT;
+        }
+
+        private int capacity() {
+            switch (kind) {
+                case INT:
+                    return ints == null ? 0 : ints.length;
+                case LONG:
+                    return longs == null ? 0 : longs.length;
+                case DOUBLE:
+                    return doubles == null ? 0 : doubles.length;
+                default:
+                    return objects == null ? 0 : objects.length;
+            }
+        }
+
+        private void ensureCapacity(int required) {
+            final var capacity = capacity();
+            if (capacity >= required) {
+                return;
+            }
+            final var newCapacity = Math.max(Math.max(INITIAL_CAPACITY, capacity * 2), required);
+            switch (kind) {
+                case INT:
+                    ints = ints == null ? new int[newCapacity] : Arrays.copyOf(ints, newCapacity);
+                    break;
+                case LONG:
+                    longs = longs == null ? new long[newCapacity] : Arrays.copyOf(longs, newCapacity);
+                    break;
+                case DOUBLE:
+                    doubles = doubles == null ? new double[newCapacity] : Arrays.copyOf(doubles, newCapacity);
+                    break;
+                default:
+                    objects = objects == null ? new Object[newCapacity] : Arrays.copyOf(objects, newCapacity);
+            }
+        }
+    }
+}
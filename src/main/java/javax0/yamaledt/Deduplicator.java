@@ -0,0 +1,211 @@
+package javax0.yamaledt;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Share the structurally equal, immutable parts of the test records.
+ * <p>
+ * The same nested structures often repeat in many test records, especially when the Yaml is generated by Jamal macros
+ * instead of using Yaml anchors. Every copy is a separate set of maps, lists and strings after the construction. This
+ * class replaces the copies with a single canonical instance. The parameter names, which are the keys of the record
+ * maps, are shared the same way.
+ * <p>
+ * Strings, booleans and numbers are shared when they are equal. Maps and lists are shared when they contain only
+ * shared values, and their keys and elements are the same instances in the same order. Since the children are already
+ * canonical, checking a map or a list needs only the identity of the children and does not need to traverse the
+ * whole subtree again. The shared maps and lists are returned as unmodifiable views. Maps and lists containing any
+ * other object, for example an object of a class given with a {@code !!} tag, a date or a set, are not shared,
+ * because those objects may be mutable. Such maps and lists are kept modifiable, and only their values are replaced
+ * with the canonical instances. Recursive structures, which Yaml can describe using anchors and aliases, are not
+ * shared either: a map or a list found again while its own content is processed is treated as not shareable.
+ * <p>
+ * An instance is used while the test records of a single test method are provided. It is not thread safe.
+ */
+final class Deduplicator {
+    private final Map<Object, Object> canonical = new HashMap<>();
+    /**
+     * The maps and lists being processed, from the record down to the current one.
+     */
+    private final Set<Object> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Create a test record with the parameter names and the values replaced by the canonical instances. The map of the
+     * record itself is not shared, it is a new modifiable map in the same order as the original one.
+     *
+     * @param record the test record just constructed
+     * @return the record with the canonical parameter names and values
+     */
+    @SuppressWarnings("unchecked")
+    TestRecord record(TestRecord record) {
+        if (record.parameters == null) {
+            return record;
+        }
+        // the keys are not cast to String, a Yaml key like "1:" is an Integer in the map of the record
+        final var parameters = new LinkedHashMap<Object, Object>(record.parameters.size() * 4 / 3 + 1);
+        for (final var entry : ((Map<Object, Object>) (Map<?, ?>) record.parameters).entrySet()) {
+            parameters.put(unwrap(canonical(entry.getKey())), unwrap(canonical(entry.getValue())));
+        }
+        return new TestRecord(record.displayName, (Map<String, Object>) (Map<?, ?>) parameters, record.line);
+    }
+
+    /**
+     * A value that cannot be shared, because it is or it contains a possibly mutable object.
+     */
+    private static final class Unshared {
+        private final Object value;
+
+        private Unshared(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static Object unwrap(Object value) {
+        return value instanceof Unshared ? ((Unshared) value).value : value;
+    }
+
+    /**
+     * @param value the value to deduplicate
+     * @return the canonical instance of the value or an {@link Unshared} holding the value if it cannot be shared
+     */
+    private Object canonical(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long
+            || value instanceof Double || value instanceof BigInteger || value instanceof BigDecimal) {
+            return canonical.computeIfAbsent(value, v -> v);
+        }
+        if (!(value instanceof List) && !(value instanceof Map)) {
+            return new Unshared(value);
+        }
+        if (!visiting.add(value)) {
+            return new Unshared(value);
+        }
+        try {
+            return value instanceof List ? canonicalList((List<?>) value) : canonicalMap((Map<?, ?>) value);
+        } finally {
+            visiting.remove(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object canonicalList(List<?> list) {
+        final var elements = new ArrayList<>(list.size());
+        var shared = true;
+        for (final var element : list) {
+            final var c = canonical(element);
+            shared = shared && !(c instanceof Unshared);
+            elements.add(unwrap(c));
+        }
+        if (!shared) {
+            final var iterator = ((List<Object>) list).listIterator();
+            for (final var element : elements) {
+                iterator.next();
+                iterator.set(element);
+            }
+            return new Unshared(list);
+        }
+        return canonical.computeIfAbsent(new Key(elements), k -> Collections.unmodifiableList(elements));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object canonicalMap(Map<?, ?> map) {
+        final var entries = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        var shared = true;
+        for (final var entry : map.entrySet()) {
+            final var key = canonical(entry.getKey());
+            final var value = canonical(entry.getValue());
+            shared = shared && !(key instanceof Unshared) && !(value instanceof Unshared);
+            entries.put(unwrap(key), unwrap(value));
+        }
+        if (!shared) {
+            for (final var entry : ((Map<Object, Object>) map).entrySet()) {
+                entry.setValue(entries.get(entry.getKey()));
+            }
+            return new Unshared(map);
+        }
+        return canonical.computeIfAbsent(new Key(entries), k -> Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * The key of a canonical map or list in the table. Two keys are equal if they are both lists or both maps, and
+     * their elements, or keys and values, are the same instances in the same order. The hash code is calculated once
+     * from the identity hash codes of the elements.
+     */
+    private static final class Key {
+        private final Object structure;
+        private final int hash;
+
+        private Key(List<?> list) {
+            this.structure = list;
+            var h = 1;
+            for (final var element : list) {
+                h = 31 * h + System.identityHashCode(element);
+            }
+            this.hash = h;
+        }
+
+        private Key(Map<?, ?> map) {
+            this.structure = map;
+            var h = 2;
+            for (final var entry : map.entrySet()) {
+                h = 31 * (31 * h + System.identityHashCode(entry.getKey())) + System.identityHashCode(entry.getValue());
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final var that = (Key) other;
+            if (hash != that.hash) {
+                return false;
+            }
+            if (structure instanceof List && that.structure instanceof List) {
+                return sameInstances(((List<?>) structure).iterator(), ((List<?>) that.structure).iterator());
+            }
+            if (structure instanceof Map && that.structure instanceof Map) {
+                final var these = ((Map<?, ?>) structure).entrySet().iterator();
+                final var those = ((Map<?, ?>) that.structure).entrySet().iterator();
+                while (these.hasNext() && those.hasNext()) {
+                    final var a = these.next();
+                    final var b = those.next();
+                    if (a.getKey() != b.getKey() || a.getValue() != b.getValue()) {
+                        return false;
+                    }
+                }
+                return !these.hasNext() && !those.hasNext();
+            }
+            return false;
+        }
+
+        private static boolean sameInstances(Iterator<?> these, Iterator<?> those) {
+            while (these.hasNext() && those.hasNext()) {
+                if (these.next() != those.next()) {
+                    return false;
+                }
+            }
+            return !these.hasNext() && !those.hasNext();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * An extension persisting the display names of the failed test records, so that a later test run can execute only
+ * those.
+ * <p>
+ * The extension is registered by the {@link YamlSource} annotation. When a test invocation created from a test record
+ * fails, the display name of the record is noted. At the end of the test run the names are written into a file for
+ * each test method in the directory {@value #DEFAULT_DIRECTORY}, along with the location of the resource and the hash
+ * of the Yaml source. The file is named after the test class and the signature of the test method, so an inherited
+ * test method executed in different test classes, and overloaded test methods have separate files. The file of a test
+ * method is deleted when all the test records of the method succeed. The directory can be changed using the JUnit
+ * configuration parameter (or system property) {@value #DIRECTORY_PARAMETER}.
+ * <p>
+ * When the configuration parameter (or system property) {@value #RERUN_PARAMETER} is {@code true} the
+ * {@link YamalArgumentsProvider} provides only the test records listed in the file of the test method, for example
+ * running the tests with {@code -Dyamaledt.rerunFailed=true}. The other test records are not constructed. Test methods
+ * without failed test records are skipped. If the Yaml source changed since the file was written then all the test
+ * records of the method are provided.
+ */
+public class FailedRecords implements TestWatcher {
+    public static final String RERUN_PARAMETER = "yamaledt.rerunFailed";
+    public static final String DIRECTORY_PARAMETER = "yamaledt.failedRecords.dir";
+    public static final String DEFAULT_DIRECTORY = "target/yamaledt-failed";
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FailedRecords.class);
+    private static final String RESOURCE = "resource ";
+    private static final String HASH = "hash ";
+
+    private static class Failures {
+        final String resource;
+        final Map<Integer, String> names = new ConcurrentSkipListMap<>();
+        /**
+         * The hash of the Yaml source. It is calculated when the first failure is registered, so that the source
+         * itself is not kept until the end of the test run.
+         */
+        volatile String hash;
+
+        private Failures(String resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Collects the failed test records during the test run and writes the files when the root extension context is
+     * closed.
+     */
+    private static class Registry implements ExtensionContext.Store.CloseableResource {
+        private final File directory;
+        private final Map<String, Failures> methods = new ConcurrentHashMap<>();
+
+        private Registry(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void close() {
+            for (final var entry : methods.entrySet()) {
+                final var file = file(directory, entry.getKey());
+                final var failures = entry.getValue();
+                try {
+                    if (failures.names.isEmpty()) {
+                        Files.deleteIfExists(file.toPath());
+                    } else {
+                        final var lines = new ArrayList<String>();
+                        lines.add(RESOURCE + failures.resource);
+                        lines.add(HASH + failures.hash);
+                        for (final var name : failures.names.values()) {
+                            lines.add(escape(name));
+                        }
+                        Files.createDirectories(directory.toPath());
+                        final var tmp = Files.createTempFile(directory.toPath(), "yamaledt-", ".tmp");
+                        Files.write(tmp, lines, StandardCharsets.UTF_8);
+                        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException e) {
+                    throw new ExtensionConfigurationException(format("Cannot write the failed records file '%s'.", file), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        register(context, false);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        register(context, false);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        register(context, true);
+    }
+
+    private void register(ExtensionContext context, boolean failed) {
+        final var sources = RecordSources.of(context);
+        final var index = RecordSources.index(context);
+        if (sources.isEmpty() || !sources.get().contains(index)) {
+            return;
+        }
+        final var failures = context.getRoot().getStore(NAMESPACE)
+            .getOrComputeIfAbsent(Registry.class, k -> new Registry(directory(context)), Registry.class)
+            .methods.computeIfAbsent(id(context), m -> new Failures(sources.get().resource));
+        if (failed) {
+            if (failures.hash == null) {
+                failures.hash = sources.get().text.hash();
+            }
+            failures.names.put(index, String.valueOf(sources.get().displayName(index)));
+        }
+    }
+
+    /**
+     * Get the display names of the test records to rerun.
+     *
+     * @param context    the extension context of the test method
+     * @param resource   the location of the resource the test records are read from
+     * @param text       the Yaml formatted source the test records are read from
+     * @return empty when all the test records have to be provided. This is the case when the rerun mode is not switched
+     * on, or when the resource or the source has changed since the failed test records were written. Otherwise, the
+     * set of the display names of the failed test records, which is empty if there were no failed records.
+     */
+    static Optional<Set<String>> recordsToRerun(ExtensionContext context, String resource, YamlText text) {
+        if (!context.getConfigurationParameter(RERUN_PARAMETER).map(Boolean::parseBoolean).orElse(false)) {
+            return Optional.empty();
+        }
+        final var file = file(directory(context), id(context));
+        if (!file.exists()) {
+            return Optional.of(Set.of());
+        }
+        try {
+            final var lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (lines.size() < 2 || !lines.get(0).equals(RESOURCE + resource) || !lines.get(1).equals(HASH + text.hash())) {
+                return Optional.empty();
+            }
+            final var names = new HashSet<String>();
+            for (final var line : lines.subList(2, lines.size())) {
+                names.add(unescape(line));
+            }
+            return Optional.of(names);
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException(format("Cannot read the failed records file '%s'.", file), e);
+        }
+    }
+
+    private static File directory(ExtensionContext context) {
+        return new File(context.getConfigurationParameter(DIRECTORY_PARAMETER).orElse(DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * Identify the test method in the test class. The class is the class the test is executed in, which is not the
+     * declaring class of the method when the test method is inherited. The method is identified by its signature, so
+     * that overloaded methods are distinguished.
+     *
+     * @param context the extension context of the test method or of a test invocation
+     * @return the identifier, for example {@code com.example.TestSample.test(int,java.lang.String)}
+     */
+    private static String id(ExtensionContext context) {
+        final var method = context.getRequiredTestMethod();
+        return context.getRequiredTestClass().getName() + "." + method.getName() + "(" +
+            Arrays.stream(method.getParameterTypes()).map(Class::getTypeName).collect(Collectors.joining(",")) + ")";
+    }
+
+    private static File file(File directory, String id) {
+        return new File(directory, id + ".txt");
+    }
+
+    /**
+     * Escape the display name, so that it fits into a single line.
+     *
+     * @param name the display name
+     * @return the escaped name
+     */
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String line) {
+        final var sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            final var c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                final var next = line.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
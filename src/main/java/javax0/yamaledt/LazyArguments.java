@@ -0,0 +1,46 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The arguments of a test invocation constructed only when JUnit fetches them, which is right before the invocation
+ * is executed. Until that the arguments hold only the factory, which references the not yet constructed Yaml nodes of
+ * the test record.
+ * <p>
+ * JUnit keeps the array returned by {@link #get()} for the whole test run. The {@link LazyArgumentsRelease} extension
+ * calls {@link #release()} after the invocation, which clears the array, so the constructed objects can be garbage
+ * collected.
+ */
+final class LazyArguments implements Arguments {
+    private Supplier<Object[]> factory;
+    private Object[] arguments;
+
+    LazyArguments(Supplier<Object[]> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public synchronized Object[] get() {
+        if (arguments == null) {
+            if (factory == null) {
+                throw new IllegalStateException("The arguments were already released.");
+            }
+            arguments = factory.get();
+            factory = null;
+        }
+        return arguments;
+    }
+
+    /**
+     * Release the constructed arguments and the Yaml nodes they were constructed from.
+     */
+    synchronized void release() {
+        factory = null;
+        if (arguments != null) {
+            Arrays.fill(arguments, null);
+        }
+    }
+}
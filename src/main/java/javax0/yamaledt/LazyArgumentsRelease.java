@@ -0,0 +1,19 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * An extension releasing the arguments of a test invocation after the invocation when the test records are
+ * constructed lazily, see {@link YamlSource#lazy()}.
+ * <p>
+ * The extension is registered by the {@link YamlSource} annotation. It does nothing for test invocations whose
+ * arguments were not constructed lazily.
+ */
+public class LazyArgumentsRelease implements AfterEachCallback {
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        RecordSources.of(context).ifPresent(sources -> sources.release(RecordSources.index(context)));
+    }
+}
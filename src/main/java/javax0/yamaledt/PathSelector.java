@@ -0,0 +1,175 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * A simple path language to select one or more sub-maps from the Yaml structure. This is a lightweight alternative to
+ * the OGNL expression for the common case when the test data is somewhere down in a map of maps.
+ * <p>
+ * The syntax of a path is
+ *
+ * <pre>
+ *     path        ::= alternative ( '|' alternative )*
+ *     alternative ::= segment ( '.' segment )*
+ *     segment     ::= '*' | name | '"' any character except '"' '"'
+ * </pre>
+ * <p>
+ * A name selects the value with the given key from the map. The wildcard {@code *} selects all the values of the map
+ * that are maps themselves. The alternatives are all evaluated and the result is the union of the selected maps in
+ * the order of the alternatives. For example the path {@code *.cases} selects the {@code cases} map from every test
+ * suite that is on the top level of the Yaml file, and {@code suiteA.cases|suiteB.cases} selects the same from two
+ * named suites.
+ * <p>
+ * A path is compiled only once into a chain of functions that navigate the maps directly. The compiled selectors are
+ * cached and can be shared between threads. The same compiled selector can navigate the constructed Java structure
+ * (maps) as well as the composed, not yet constructed Yaml node tree (mapping nodes).
+ */
+final class PathSelector {
+    private static final Map<String, PathSelector> CACHE = new ConcurrentHashMap<>();
+
+    private final List<Function<Object, Stream<Object>>> alternatives;
+
+    private PathSelector(List<Function<Object, Stream<Object>>> alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Get the compiled selector for the path. The path is compiled only the first time it is used.
+     *
+     * @param path the path to compile
+     * @return the compiled selector
+     */
+    static PathSelector compile(String path) {
+        return CACHE.computeIfAbsent(path, PathSelector::parse);
+    }
+
+    /**
+     * Select the maps from the structure.
+     *
+     * @param root the Yaml structure the path is relative to
+     * @return the stream of the selected maps in the order they are in the structure
+     */
+    Stream<Map<String, Object>> select(Object root) {
+        return alternatives.stream().flatMap(alternative -> alternative.apply(root)).map(PathSelector::asMap);
+    }
+
+    /**
+     * Select the maps from the structure and stream the entries of them. The result is the union of the test records
+     * of all the selected maps without collecting them into a new map.
+     *
+     * @param root the Yaml structure the path is relative to
+     * @return the stream of the entries
+     */
+    Stream<Map.Entry<String, Map<String, Object>>> records(Object root) {
+        return select(root).flatMap(map -> map.entrySet().stream()).map(PathSelector::asRecord);
+    }
+
+    /**
+     * Select the mapping nodes from the Yaml node tree. This is the same as {@link #select(Object)} but for the Yaml
+     * structure, which is not constructed yet.
+     *
+     * @param root the Yaml node tree the path is relative to
+     * @return the stream of the selected mapping nodes in the order they are in the structure
+     */
+    Stream<MappingNode> nodes(Node root) {
+        return alternatives.stream().flatMap(alternative -> alternative.apply(root)).map(node -> (MappingNode) node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object object) {
+        return (Map<String, Object>) object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<String, Map<String, Object>> asRecord(Map.Entry<String, Object> entry) {
+        return (Map.Entry<String, Map<String, Object>>) (Map.Entry<String, ?>) entry;
+    }
+
+    private static PathSelector parse(String path) {
+        final var alternatives = new ArrayList<Function<Object, Stream<Object>>>();
+        Function<Object, Stream<Object>> chain = null;
+        int i = 0;
+        while (true) {
+            final var start = i;
+            final String name;
+            if (i < path.length() && path.charAt(i) == '"') {
+                final var end = path.indexOf('"', i + 1);
+                if (end == -1) {
+                    throw new ExtensionConfigurationException(format("The select path '%s' has an unterminated string.", path));
+                }
+                name = path.substring(i + 1, end);
+                i = end + 1;
+            } else {
+                while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '|') {
+                    i++;
+                }
+                name = path.substring(start, i).trim();
+                if (name.length() == 0) {
+                    throw new ExtensionConfigurationException(format("The select path '%s' has an empty segment at position %d.", path, start));
+                }
+            }
+            final var step = "*".equals(name) && path.charAt(start) != '"' ? wildcard() : key(name);
+            chain = chain == null ? step : andThen(chain, step);
+            if (i == path.length() || path.charAt(i) == '|') {
+                alternatives.add(chain);
+                chain = null;
+                if (i == path.length()) {
+                    return new PathSelector(alternatives);
+                }
+            } else if (path.charAt(i) != '.') {
+                throw new ExtensionConfigurationException(format("The select path '%s' has an unexpected character at position %d.", path, i));
+            }
+            i++;
+        }
+    }
+
+    private static Function<Object, Stream<Object>> andThen(Function<Object, Stream<Object>> first, Function<Object, Stream<Object>> next) {
+        return node -> first.apply(node).flatMap(next);
+    }
+
+    private static Function<Object, Stream<Object>> key(String name) {
+        return node -> {
+            if (node instanceof Map) {
+                final var value = ((Map<?, ?>) node).get(name);
+                if (value instanceof Map) {
+                    return Stream.of(value);
+                }
+            }
+            if (node instanceof MappingNode) {
+                return ((MappingNode) node).getValue().stream()
+                    .filter(tuple -> tuple.getKeyNode() instanceof ScalarNode && name.equals(((ScalarNode) tuple.getKeyNode()).getValue()))
+                    .map(NodeTuple::getValueNode)
+                    .reduce((first, last) -> last).stream()
+                    .filter(value -> value instanceof MappingNode)
+                    .map(value -> (Object) value);
+            }
+            return Stream.empty();
+        };
+    }
+
+    private static Function<Object, Stream<Object>> wildcard() {
+        return node -> {
+            if (node instanceof Map) {
+                return ((Map<?, ?>) node).values().stream().filter(value -> value instanceof Map).map(value -> (Object) value);
+            }
+            if (node instanceof MappingNode) {
+                return ((MappingNode) node).getValue().stream().map(NodeTuple::getValueNode)
+                    .filter(value -> value instanceof MappingNode).map(value -> (Object) value);
+            }
+            return Stream.empty();
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * The display names and the lines of the test records in the order of the arguments provided for a test method. The
+ * {@link YamalArgumentsProvider} puts an instance into the store of the test method's extension context. The
+ * extensions working on the individual test invocations use it to find out which test record the invocation was
+ * created from. When the test records are constructed lazily it also holds the arguments to release after the
+ * invocations.
+ */
+final class RecordSources {
+    static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RecordSources.class);
+    private static final Pattern INVOCATION = Pattern.compile("\\[test-template-invocation:#(\\d+)]$");
+
+    /**
+     * The location of the resource relative to the class path root.
+     */
+    final String resource;
+    /**
+     * The Yaml formatted source the records were read from.
+     */
+    final YamlText text;
+    private final List<String> displayNames = new ArrayList<>();
+    private final List<Integer> lines = new ArrayList<>();
+    private final List<LazyArguments> arguments = new ArrayList<>();
+
+    RecordSources(String resource, YamlText text) {
+        this.resource = resource;
+        this.text = text;
+    }
+
+    /**
+     * Get the record sources of the test method an invocation belongs to.
+     *
+     * @param invocationContext the extension context of the test invocation
+     * @return the record sources or empty if the test method does not get the arguments from the
+     * {@link YamalArgumentsProvider}
+     */
+    static Optional<RecordSources> of(ExtensionContext invocationContext) {
+        return invocationContext.getParent().map(parent -> parent.getStore(NAMESPACE).get(RecordSources.class, RecordSources.class));
+    }
+
+    /**
+     * Get the zero based index of the test invocation. The index is the same as the index of the test record the
+     * arguments were created from.
+     *
+     * @param invocationContext the extension context of the test invocation
+     * @return the index of the invocation or -1 if the context is not an invocation of a parameterized test
+     */
+    static int index(ExtensionContext invocationContext) {
+        final var matcher = INVOCATION.matcher(invocationContext.getUniqueId());
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) - 1 : -1;
+    }
+
+    synchronized void add(TestRecord record) {
+        displayNames.add(record.displayName);
+        lines.add(record.line);
+    }
+
+    /**
+     * Forget the records added so far, when the records are read again from the start.
+     */
+    synchronized void clear() {
+        displayNames.clear();
+        lines.clear();
+        arguments.clear();
+    }
+
+    synchronized void add(LazyArguments lazyArguments) {
+        arguments.add(lazyArguments);
+    }
+
+    /**
+     * Release the arguments of the test invocation if they were constructed lazily.
+     *
+     * @param index the index of the test invocation
+     */
+    synchronized void release(int index) {
+        if (index >= 0 && index < arguments.size()) {
+            arguments.get(index).release();
+        }
+    }
+
+    synchronized boolean contains(int index) {
+        return index >= 0 && index < displayNames.size();
+    }
+
+    synchronized String displayName(int index) {
+        return displayNames.get(index);
+    }
+
+    synchronized int line(int index) {
+        return lines.get(index);
+    }
+}
@@ -0,0 +1,130 @@
+package javax0.yamaledt;
+
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Reader of the test records directly from the events of the Yaml parser, without composing the node tree.
+ * <p>
+ * A composed node tree holds all the nodes of the source until the whole tree is released, and every node holds the
+ * marks of its start and end, which reference the buffer of the Yaml reader. This reader passes the test records to
+ * the consumer one by one as they are parsed, therefore only the record being read is in the memory besides the
+ * storage of the consumer, e.g. the {@link ColumnarRecords}.
+ * <p>
+ * Only the simple form of the test records is read this way. The root is a map of the test records, every record is
+ * a map from the parameter names to scalar values, the display names and the parameter names are strings, and there
+ * are no anchors, aliases, explicit tags, merge keys and duplicated display names. When the source uses anything else
+ * then {@link NotStreamable} is thrown, and the caller has to read the source composing the node tree. Some records
+ * may already have been passed to the consumer in that case.
+ */
+final class StreamedRecords {
+    /**
+     * Thrown when the source cannot be read from the parser events. It does not carry a stack trace, it only signals
+     * the caller to read the source the other way.
+     */
+    static final class NotStreamable extends RuntimeException {
+        private NotStreamable() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final Resolver resolver = new Resolver();
+    private final BiFunction<Tag, ScalarEvent, Object> constructor;
+
+    /**
+     * @param constructor constructs the value of a scalar from the resolved tag and the parser event
+     */
+    StreamedRecords(BiFunction<Tag, ScalarEvent, Object> constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Read the test records from the parser events.
+     *
+     * @param parsed   the events of the Yaml parser
+     * @param rerun    the display names of the test records to pass to the consumer, or {@code null} to pass all
+     * @param consumer gets the test records in the order of the source
+     */
+    void read(Iterable<Event> parsed, Set<String> rerun, Consumer<TestRecord> consumer) {
+        final var events = parsed.iterator();
+        next(events, Event.ID.StreamStart);
+        next(events, Event.ID.DocumentStart);
+        collection(next(events, Event.ID.MappingStart));
+        final var displayNames = new HashSet<String>();
+        for (var key = events.next(); !key.is(Event.ID.MappingEnd); key = events.next()) {
+            final var displayName = string(key);
+            if (!displayNames.add(displayName)) {
+                throw new NotStreamable();
+            }
+            final var line = key.getStartMark().getLine() + 1;
+            final var provided = rerun == null || rerun.contains(displayName);
+            collection(next(events, Event.ID.MappingStart));
+            final var parameters = new LinkedHashMap<String, Object>();
+            for (var name = events.next(); !name.is(Event.ID.MappingEnd); name = events.next()) {
+                final var parameter = string(name);
+                final var value = scalar(next(events, Event.ID.Scalar));
+                if (provided) {
+                    parameters.put(parameter, constructor.apply(resolve(value), value));
+                }
+            }
+            if (provided) {
+                consumer.accept(new TestRecord(displayName, parameters, line));
+            }
+        }
+        next(events, Event.ID.DocumentEnd);
+        next(events, Event.ID.StreamEnd);
+    }
+
+    private static Event next(Iterator<Event> events, Event.ID id) {
+        final var event = events.next();
+        if (!event.is(id)) {
+            throw new NotStreamable();
+        }
+        return event;
+    }
+
+    private static void collection(Event event) {
+        final var start = (CollectionStartEvent) event;
+        if (start.getAnchor() != null || start.getTag() != null) {
+            throw new NotStreamable();
+        }
+    }
+
+    private static ScalarEvent scalar(Event event) {
+        final var scalar = (ScalarEvent) event;
+        if (scalar.getAnchor() != null || scalar.getTag() != null) {
+            throw new NotStreamable();
+        }
+        return scalar;
+    }
+
+    /**
+     * @param event the event of a key
+     * @return the value of the key, which has to be a string scalar
+     */
+    private String string(Event event) {
+        if (!event.is(Event.ID.Scalar)) {
+            throw new NotStreamable();
+        }
+        final var scalar = scalar(event);
+        if (!Tag.STR.equals(resolve(scalar))) {
+            throw new NotStreamable();
+        }
+        return scalar.getValue();
+    }
+
+    private Tag resolve(ScalarEvent scalar) {
+        return resolver.resolve(NodeId.scalar, scalar.getValue(), scalar.getImplicit().canOmitTagInPlainScalar());
+    }
+}
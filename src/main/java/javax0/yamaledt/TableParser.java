@@ -0,0 +1,205 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Parser of the tabular form of the test records.
+ * <p>
+ * Instead of listing the test records as Yaml maps, repeating the keys in every record, the test data can be given as
+ * a table in a literal block:
+ *
+ * <pre>
+ * table: |
+ *   DisplayName                 | int | k
+ *   adding zero to five is five | 5   | 0
+ *   adding one to four is five  | 4   | 1
+ * </pre>
+ * <p>
+ * or as comma separated values using the key {@code csv} instead of {@code table}. The map holding the table must
+ * not have any other key, and the table must be a literal block, starting with {@code |}. Otherwise, the map is a
+ * usual map of test records, for example, a single test record named {@code table}.
+ * <p>
+ * The first line is the header with the names of the parameters. The first column is always the display name of the
+ * test record, independent of its name in the header. Every other line is a test record. Empty lines and lines
+ * starting with {@code #} are ignored. In the {@code table} form the lines may also start and end with a {@code |}
+ * character.
+ * <p>
+ * A cell between double quotes is a string, a double quote inside is written as two double quotes. Other cells are
+ * converted the same way as Yaml plain scalars, e.g. {@code 5} is an integer, {@code 5.0} is a double, {@code true}
+ * is a boolean, and an empty cell or {@code ~} is {@code null}.
+ * <p>
+ * The table is split into lines and cells by this class, and it does not use the Yaml parser for the records.
+ */
+final class TableParser {
+    static final String TABLE = "table";
+    static final String CSV = "csv";
+
+    private TableParser() {
+    }
+
+    /**
+     * Decide if the mapping node holds the test records in tabular form. It does if the only key is {@code table} or
+     * {@code csv} and the value is a literal block scalar. Folded and quoted scalars are not accepted, because they do
+     * not keep the lines of the table.
+     *
+     * @param node the mapping node holding the test records
+     * @return the scalar node holding the table or {@code null} if the records are not in tabular form
+     */
+    static ScalarNode table(MappingNode node) {
+        if (node.getValue().size() != 1) {
+            return null;
+        }
+        final var tuple = node.getValue().get(0);
+        if (tuple.getKeyNode() instanceof ScalarNode && tuple.getValueNode() instanceof ScalarNode
+            && ((ScalarNode) tuple.getValueNode()).getScalarStyle() == DumperOptions.ScalarStyle.LITERAL) {
+            final var key = ((ScalarNode) tuple.getKeyNode()).getValue();
+            if (TABLE.equals(key) || CSV.equals(key)) {
+                return (ScalarNode) tuple.getValueNode();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse the table.
+     *
+     * @param resource  the name of the resource used in error messages
+     * @param node      the mapping node holding the table, checked with {@link #table(MappingNode)}
+     * @param converter converts the content of a not quoted cell to a value the same way as Yaml plain scalars
+     * @return the test records in the order of the lines
+     */
+    static List<TestRecord> parse(String resource, MappingNode node, Function<String, Object> converter) {
+        final var table = table(node);
+        final var separator = CSV.equals(((ScalarNode) node.getValue().get(0).getKeyNode()).getValue()) ? ',' : '|';
+        // the content of a literal block starts in the line following the block indicator
+        final var firstLine = table.getStartMark().getLine() + 2;
+        final var lines = table.getValue().split("\n", -1);
+        final var records = new ArrayList<TestRecord>();
+        String[] header = null;
+        for (int i = 0; i < lines.length; i++) {
+            final var line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final var cells = cells(resource, firstLine + i, line, separator);
+            if (header == null) {
+                header = header(resource, firstLine + i, cells);
+                continue;
+            }
+            if (cells.size() != header.length) {
+                throw new ExtensionConfigurationException(
+                    format("The line %d of the table in '%s' has %d cells, but the header has %d.",
+                        firstLine + i, resource, cells.size(), header.length));
+            }
+            final var parameters = new LinkedHashMap<String, Object>();
+            for (int j = 1; j < header.length; j++) {
+                parameters.put(header[j], cells.get(j).value(converter));
+            }
+            records.add(new TestRecord(cells.get(0).text, parameters, firstLine + i));
+        }
+        return records;
+    }
+
+    private static String[] header(String resource, int lineNumber, List<Cell> cells) {
+        final var header = new String[cells.size()];
+        final var names = new HashSet<String>();
+        for (int j = 0; j < header.length; j++) {
+            header[j] = cells.get(j).text;
+            if (!names.add(header[j])) {
+                throw new ExtensionConfigurationException(
+                    format("The column '%s' is defined more than once in the header of the table in '%s' line %d.",
+                        header[j], resource, lineNumber));
+            }
+        }
+        return header;
+    }
+
+    private static final class Cell {
+        final String text;
+        final boolean quoted;
+
+        private Cell(String text, boolean quoted) {
+            this.text = text;
+            this.quoted = quoted;
+        }
+
+        Object value(Function<String, Object> converter) {
+            return quoted ? text : converter.apply(text);
+        }
+    }
+
+    /**
+     * Split the line into cells.
+     *
+     * @param resource   the name of the resource used in error messages
+     * @param lineNumber the number of the line in the resource used in error messages
+     * @param line       the line already trimmed
+     * @param separator  the cell separator character
+     * @return the cells of the line
+     */
+    private static List<Cell> cells(String resource, int lineNumber, String line, char separator) {
+        var start = 0;
+        var end = line.length();
+        if (separator == '|' && line.length() > 1 && line.charAt(0) == '|' && line.charAt(end - 1) == '|') {
+            start++;
+            end--;
+        }
+        final var cells = new ArrayList<Cell>();
+        int i = start;
+        while (true) {
+            while (i < end && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < end && line.charAt(i) == '"') {
+                final var sb = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= end) {
+                        throw new ExtensionConfigurationException(
+                            format("Unterminated string in the table in '%s' line %d.", resource, lineNumber));
+                    }
+                    final var c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < end && line.charAt(i) == '"') {
+                            sb.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                while (i < end && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < end && line.charAt(i) != separator) {
+                    throw new ExtensionConfigurationException(
+                        format("Unexpected character after a string in the table in '%s' line %d.", resource, lineNumber));
+                }
+                cells.add(new Cell(sb.toString(), true));
+            } else {
+                final var cellStart = i;
+                while (i < end && line.charAt(i) != separator) {
+                    i++;
+                }
+                cells.add(new Cell(line.substring(cellStart, i).trim(), false));
+            }
+            if (i >= end) {
+                return cells;
+            }
+            i++;
+        }
+    }
+}
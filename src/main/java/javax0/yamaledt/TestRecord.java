@@ -0,0 +1,25 @@
+package javax0.yamaledt;
+
+import java.util.Map;
+
+/**
+ * A single test record read from the Yaml source. It holds the display name, the map of the parameters and the line
+ * in the Yaml source where the record starts.
+ */
+final class TestRecord {
+    /**
+     * The line number used when the location of the record in the source is not known. This is the case when the test
+     * data is selected using an OGNL expression, which works on the already constructed Java structure.
+     */
+    static final int UNKNOWN_LINE = -1;
+
+    final String displayName;
+    final Map<String, Object> parameters;
+    final int line;
+
+    TestRecord(String displayName, Map<String, Object> parameters, int line) {
+        this.displayName = displayName;
+        this.parameters = parameters;
+        this.line = line;
+    }
+}
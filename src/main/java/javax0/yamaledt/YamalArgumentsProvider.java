@@ -10,12 +10,22 @@ import org.junit.jupiter.api.extension.ExtensionConfigurationException;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.parser.ParserException;
+import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
@@ -23,61 +33,151 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.platform.commons.support.AnnotationSupport.findAnnotation;
 
+/**
+ * The arguments provider reading the test parameters from Yaml/Jamal files.
+ * <p>
+ * The provider is safe to use when JUnit executes the tests in parallel. The {@link Yaml} parser is not thread safe,
+ * therefore every thread uses its own instance. The parameter names of the test methods are cached in the store of
+ * the root extension context, which is shared by all the threads and lives as long as the test execution. The Jamal
+ * processed sources are cached in the store of the test class, thus they are shared by the test methods of the class,
+ * but they are released when all the tests of the class have finished. The parsed Yaml structures are not cached,
+ * because they are mutable and may contain
+ * mutable objects passed to the tests. Resources not processed by Jamal are not cached either, they are streamed
+ * directly into the parser, decompressing them on the fly when they are compressed with gzip.
+ * <p>
+ * Unless an OGNL expression is used the Yaml source is only composed to a node tree and the Java objects are
+ * constructed record by record. That way the line of each record in the source is known, and it is recorded for the
+ * {@link YamalProfiler}. When {@link YamlSource#parallel()} is {@code true} the Java objects of the individual test
+ * records are constructed in a parallel stream, and the arguments are still provided in the order of the records in
+ * the source. The parallel stream runs on the fork-join pool of the calling thread, which is the JUnit worker pool when
+ * JUnit executes the tests in parallel, and the common fork-join pool otherwise. When {@link YamlSource#lazy()} is
+ * {@code true} the records are constructed only when JUnit fetches the arguments of the invocation, see
+ * {@link LazyArguments}. When {@link YamlSource#deduplicate()} is {@code true} the repeated parts of the records are
+ * shared as the records are constructed, see {@link Deduplicator}.
+ * When {@link YamlSource#columnar()} is {@code true} the simple test records are read directly from the parser events
+ * without composing the node tree, see {@link StreamedRecords}.
+ */
 public class YamalArgumentsProvider implements ArgumentsProvider {
     public static final String YAML_SOURCE = YamlSource.class.getSimpleName();
     public static final String JAMAL = Jamal.class.getSimpleName();
     public static final String DISPLAY_NAME = DisplayName.class.getSimpleName();
-    private final Yaml yaml = new Yaml();
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(YamalArgumentsProvider.class);
+    private static final ThreadLocal<Yaml> YAML = ThreadLocal.withInitial(Yaml::new);
+    private static final ThreadLocal<NodeConstructor> CONSTRUCTOR = ThreadLocal.withInitial(NodeConstructor::new);
 
     @Override
     public Stream<? extends Arguments> provideArguments(ExtensionContext extensionContext) throws Exception {
         final var testMethod = extensionContext.getRequiredTestMethod();
         final var testClass = testMethod.getDeclaringClass();
+        final var cache = extensionContext.getRoot().getStore(NAMESPACE);
+        final var classCache = extensionContext.getParent().orElse(extensionContext).getStore(NAMESPACE);
 
         final YamlSource yamlSource = getYamlSourceAnnotation(testMethod);
         final Jamal jamal = getJamalAnnotation(testMethod);
-        final var resource = yamlSource.value().length() == 0 ? testMethod.getName() + ".yaml" : yamlSource.value();
+        final var resource = yamlSource.value().length() == 0 ? getDefaultResource(testClass, testMethod) : yamlSource.value();
 
-        final Map<String, Map<String, Object>> parameters = getParameters(testClass, jamal, resource, yamlSource.ognl());
+        final var location = getResourceLocation(testClass, resource);
+        final YamlText text = getSource(classCache, testClass, jamal, resource);
+        final Set<String> rerun = FailedRecords.recordsToRerun(extensionContext, location, text).orElse(null);
+        assumeTrue(rerun == null || !rerun.isEmpty(), () -> format("There are no failed test records to rerun in the test %s::%s()",
+            testClass.getName(), testMethod.getName()));
 
-        return createArgumentsStream(testMethod, resource, parameters, yamlSource.strict());
+        final var sources = new RecordSources(location, text);
+        extensionContext.getStore(RecordSources.NAMESPACE).put(RecordSources.class, sources);
+        if (yamlSource.lazy()) {
+            final List<PendingRecord> records = getPendingRecords(testMethod, resource, text, yamlSource, rerun);
+            return createLazyArgumentsStream(testMethod, getNames(cache, testMethod), resource, records, yamlSource.strict(), sources);
+        }
+        if (yamlSource.columnar()) {
+            return createColumnarArgumentsStream(testMethod, getNames(cache, testMethod), resource, text, yamlSource, rerun, sources);
+        }
+
+        final Stream<TestRecord> records = getParameters(resource, text, yamlSource.ognl(), yamlSource.select(), yamlSource.parallel(), rerun);
+        final Stream<TestRecord> parameters = yamlSource.deduplicate() ? records.map(new Deduplicator()::record) : records;
+        return createArgumentsStream(testMethod, getNames(cache, testMethod), resource, parameters, yamlSource.strict(), sources);
+    }
+
+    /**
+     * Get the name of the resource when it is not specified in the annotation. It is the name of the test method with
+     * the extension {@code .yaml}, or {@code .yaml.gz} if there is only a compressed resource.
+     *
+     * @param testClass  the class that the test method is in
+     * @param testMethod the test method
+     * @return the name of the resource
+     */
+    private String getDefaultResource(Class<?> testClass, Method testMethod) {
+        final var resource = testMethod.getName() + ".yaml";
+        if (testClass.getResource(resource) == null && testClass.getResource(resource + ".gz") != null) {
+            return resource + ".gz";
+        }
+        return resource;
+    }
+
+    /**
+     * Get the location of the resource in the form that is used in the profiling report and in the failed records
+     * files.
+     *
+     * @param testClass the class that the test method is in
+     * @param resource  the name of the resource file or the Yaml/Jamal content itself
+     * @return the path of the resource relative to the class path root, or the name of the test class when the
+     * content is given in the annotation
+     */
+    private String getResourceLocation(Class<?> testClass, String resource) {
+        if (resource.contains("\n")) {
+            return testClass.getName() + "@" + YAML_SOURCE;
+        }
+        if (resource.startsWith("/")) {
+            return resource.substring(1);
+        }
+        return testClass.getPackageName().replace('.', '/') + "/" + resource;
     }
 
     /**
      * Create the streams for the arguments.
      *
      * @param testMethod   the method to be tested.
+     * @param names        the names of the parameters of the test method
      * @param resourceName the name of the resource from where the parameters were read. It is needed only to report
      *                     error in some exception in case there is some wrong formatting in the Yaml file.
-     * @param parameters   the yaml structure holding the test parameters
+     * @param parameters   the test records, display name and the yaml structure holding the test parameters
      * @param strict       check that there are no extra, ignored parameters in the Yaml data set
+     * @param sources      collects the display names and the source lines of the records in the order of the
+     *                     arguments for the {@link YamalProfiler} and {@link FailedRecords}
      * @return the stream of arguments composed
      */
-    private Stream<Arguments> createArgumentsStream(java.lang.reflect.Method testMethod, String resourceName, Map<String, Map<String, Object>> parameters, boolean strict) {
+    private Stream<Arguments> createArgumentsStream(java.lang.reflect.Method testMethod, String[] names, String resourceName, Stream<TestRecord> parameters, boolean strict, RecordSources sources) {
         final var list = new ArrayList<Arguments>();
         try {
-            final String[] names = getNames(testMethod);
             final var nameSet = Set.of(names);
-            for (final var testYaml : parameters.entrySet()) {
-                final var displayName = testYaml.getKey();
+            for (final var testYaml : (Iterable<TestRecord>) parameters::iterator) {
+                final var displayName = testYaml.displayName;
                 Object[] para = new Object[testMethod.getParameters().length];
                 for (int i = 0; i < names.length; i++) {
                     setParameter(testMethod, strict, testYaml, displayName, para, i, names[i]);
                 }
                 list.add(Arguments.of(para));
+                sources.add(testYaml);
                 strictCheckExtra(testMethod, strict, nameSet, testYaml, displayName);
             }
         } catch (ClassCastException cce) {
@@ -86,18 +186,163 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
         return list.stream();
     }
 
-    private void setParameter(Method testMethod, boolean strict, Map.Entry<String, Map<String, Object>> testYaml, String displayName, Object[] para, int i, String name) {
+    /**
+     * Create the arguments from the test records stored in {@link ColumnarRecords}. The arguments of an invocation
+     * are created only when they are fetched from the stream.
+     * <p>
+     * When there is no OGNL expression and no select path, the records are read directly from the parser events and
+     * added to the columns one by one, see {@link StreamedRecords}. When the source cannot be read that way, the
+     * records are constructed from the composed node tree, still one by one, and the nodes of a record are released
+     * when the record was added to the columns.
+     *
+     * @param testMethod the method to be tested
+     * @param names      the names of the parameters of the test method
+     * @param resource   the name of the resource used in error messages
+     * @param text       the Yaml formatted source, already processed by Jamal
+     * @param yamlSource the composed annotation
+     * @param rerun      the display names of the test records to provide, or {@code null} to provide all
+     * @param sources    collects the display names and the source lines of the records in the order of the
+     *                   arguments for the {@link YamalProfiler} and {@link FailedRecords}
+     * @return the stream of arguments
+     */
+    private Stream<Arguments> createColumnarArgumentsStream(Method testMethod, String[] names, String resource, YamlText text, YamlSource yamlSource, Set<String> rerun, RecordSources sources) {
+        if (yamlSource.parallel()) {
+            throw new ExtensionConfigurationException(format("The test %s::%s() cannot use columnar storage together with parallel construction.",
+                testMethod.getDeclaringClass().getName(), testMethod.getName()));
+        }
+        final var strict = yamlSource.strict();
+        final var nameSet = Set.of(names);
+        final UnaryOperator<TestRecord> deduplicate = yamlSource.deduplicate() ? new Deduplicator()::record : UnaryOperator.identity();
+        final BiConsumer<ColumnarRecords, TestRecord> add = (columns, record) -> {
+            final var testYaml = deduplicate.apply(record);
+            for (final var name : names) {
+                if (!"DisplayName".equals(name)) {
+                    strictCheckMissing(testMethod, strict, testYaml, testYaml.displayName, name);
+                }
+            }
+            columns.add(testYaml);
+            sources.add(testYaml);
+            strictCheckExtra(testMethod, strict, nameSet, testYaml, testYaml.displayName);
+        };
+        final ColumnarRecords table;
+        try {
+            final var streamed = yamlSource.ognl().length() == 0 && yamlSource.select().length() == 0
+                ? streamColumnarRecords(resource, text, rerun, add, sources) : null;
+            table = streamed != null ? streamed : new ColumnarRecords();
+            if (streamed == null) {
+                getParameters(resource, text, yamlSource.ognl(), yamlSource.select(), false, rerun)
+                    .forEachOrdered(record -> add.accept(table, record));
+            }
+        } catch (ClassCastException cce) {
+            throw new ExtensionConfigurationException(format("The YAML source '%s' is not valid.", resource));
+        }
+        return IntStream.range(0, table.size()).mapToObj(row -> Arguments.of(getColumnarParameters(testMethod, names, table, row)));
+    }
+
+    /**
+     * Read the test records into the columns directly from the parser events, see {@link StreamedRecords}.
+     *
+     * @param resource the name of the resource used in error messages
+     * @param text     the Yaml formatted source
+     * @param rerun    the display names of the test records to provide, or {@code null} to provide all
+     * @param add      adds a test record to the columns and to the {@code sources}
+     * @param sources  the display names and the lines of the records added, cleared if the records cannot be read
+     *                 from the parser events
+     * @return the columns holding the records, or {@code null} if the source cannot be read from the parser events
+     */
+    private ColumnarRecords streamColumnarRecords(String resource, YamlText text, Set<String> rerun, BiConsumer<ColumnarRecords, TestRecord> add, RecordSources sources) {
+        final var table = new ColumnarRecords();
+        try (final var reader = text.open()) {
+            new StreamedRecords(CONSTRUCTOR.get()::constructScalar).read(YAML.get().parse(reader), rerun, record -> add.accept(table, record));
+            return table;
+        } catch (StreamedRecords.NotStreamable e) {
+            sources.clear();
+            return null;
+        } catch (ParserException e) {
+            throw new ExtensionConfigurationException(format("The Yaml file '%s' is erroneous.", resource), e);
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException(format("The source '%s' is not readable.", resource), e);
+        }
+    }
+
+    /**
+     * Create the arguments for the lazily constructed test records. The display names and the lines of the records
+     * are put into the {@code sources} immediately, but the parameters are constructed only when JUnit fetches the
+     * arguments of the invocation.
+     *
+     * @param testMethod   the method to be tested
+     * @param names        the names of the parameters of the test method
+     * @param resourceName the name of the resource used in error messages
+     * @param records      the test records composed, but not constructed
+     * @param strict       check that there are no extra, ignored parameters in the Yaml data set
+     * @param sources      collects the display names, the source lines and the arguments of the records in the order
+     *                     of the invocations
+     * @return the stream of arguments
+     */
+    private Stream<Arguments> createLazyArgumentsStream(Method testMethod, String[] names, String resourceName, List<PendingRecord> records, boolean strict, RecordSources sources) {
+        final var nameSet = Set.of(names);
+        final var list = new ArrayList<Arguments>(records.size());
+        try {
+            for (final var record : records) {
+                final var arguments = new LazyArguments(() -> getLazyParameters(testMethod, names, nameSet, resourceName, record, strict));
+                sources.add(record.head());
+                sources.add(arguments);
+                list.add(arguments);
+            }
+        } catch (ClassCastException cce) {
+            throw new ExtensionConfigurationException(format("The YAML source '%s' is not valid.", resourceName));
+        }
+        return list.stream();
+    }
+
+    private Object[] getLazyParameters(Method testMethod, String[] names, Set<String> nameSet, String resourceName, PendingRecord record, boolean strict) {
+        try {
+            final var testYaml = record.construct();
+            final Object[] para = new Object[testMethod.getParameterCount()];
+            for (int i = 0; i < names.length; i++) {
+                setParameter(testMethod, strict, testYaml, testYaml.displayName, para, i, names[i]);
+            }
+            strictCheckExtra(testMethod, strict, nameSet, testYaml, testYaml.displayName);
+            return para;
+        } catch (ClassCastException cce) {
+            throw new ExtensionConfigurationException(format("The YAML source '%s' is not valid.", resourceName));
+        }
+    }
+
+    /**
+     * Create the parameters of a test invocation from a record stored in the columnar table. This is the moment when
+     * the primitive values are boxed.
+     *
+     * @param testMethod the method to be tested
+     * @param names      the names of the parameters of the test method
+     * @param table      the table holding the test records
+     * @param row        the index of the record in the table
+     * @return the parameters
+     */
+    private Object[] getColumnarParameters(Method testMethod, String[] names, ColumnarRecords table, int row) {
+        final Object[] para = new Object[testMethod.getParameterCount()];
+        for (int i = 0; i < names.length; i++) {
+            if ("DisplayName".equals(names[i])) {
+                setDisplayName(table.displayName(row), para, i, testMethod.getParameters()[i].getType() == DisplayName.class);
+            } else {
+                para[i] = table.get(row, names[i]);
+            }
+        }
+        return para;
+    }
+
+    private void setParameter(Method testMethod, boolean strict, TestRecord testYaml, String displayName, Object[] para, int i, String name) {
         if ("DisplayName".equals(name)) {
             setDisplayName(displayName, para, i, testMethod.getParameters()[i].getType() == DisplayName.class);
         } else {
             strictCheckMissing(testMethod, strict, testYaml, displayName, name);
-            para[i] = testYaml.getValue().get(name);
+            para[i] = testYaml.parameters.get(name);
         }
     }
 
-    private void strictCheckExtra(Method testMethod, boolean strict, Set<String> nameSet, Map.Entry<String, Map<String, Object>> testYaml, String displayName) {
+    private void strictCheckExtra(Method testMethod, boolean strict, Set<String> nameSet, TestRecord testYaml, String displayName) {
         if (strict) {
-            for (final var key : testYaml.getValue().keySet()) {
+            for (final var key : testYaml.parameters.keySet()) {
                 if (!nameSet.contains(key)) {
                     throw new ExtensionConfigurationException(
                         format("There is an extra key '%s' in the test record '%s' of the test %s::%s()",
@@ -109,8 +354,8 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
         }
     }
 
-    private void strictCheckMissing(Method testMethod, boolean strict, Map.Entry<String, Map<String, Object>> testYaml, String displayName, String name) {
-        if (strict && !testYaml.getValue().containsKey(name)) {
+    private void strictCheckMissing(Method testMethod, boolean strict, TestRecord testYaml, String displayName, String name) {
+        if (strict && !testYaml.parameters.containsKey(name)) {
             throw new ExtensionConfigurationException(
                 format("The parameter '%s' in the test record '%s' of the test %s::%s() is not defined",
                     name,
@@ -119,6 +364,18 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
         }
     }
 
+    /**
+     * Get the names of the parameters of the test method. The names are calculated only once for each method and then
+     * stored in the cache. The returned array must not be modified.
+     *
+     * @param cache      the store shared by all the threads executing the tests
+     * @param testMethod the test method
+     * @return the names of the parameters
+     */
+    private String[] getNames(ExtensionContext.Store cache, java.lang.reflect.Method testMethod) {
+        return cache.getOrComputeIfAbsent(testMethod, this::getNames, String[].class);
+    }
+
     private String[] getNames(java.lang.reflect.Method testMethod) {
         final String[] names = new String[testMethod.getParameterCount()];
         int displayNameIndex = -1;
@@ -175,16 +432,181 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
     /**
      * Get the test parameters in an Object as read from the Yaml/Jamal file.
      *
-     * @param testClass the class that the test method is in. This is used to identify the location of the resource. The
-     *                  test data file is read from the same directory where the class is.
-     * @param jamal     the Jamal annotation. It is used to get access to the Jamal parameters (e.g.: macro opening and
-     *                  closing strings) as well as to know if Jamal processing is enabled.
      * @param resource  the name of the resource file that contains the Yaml/Jamal formatted parameters
+     * @param text      the Yaml formatted source, already processed by Jamal
      * @param ognl      the OGNL expression that selects where the test data starts
-     * @return the Yaml structure read from the file
-     * @throws URISyntaxException if the file cannot be identified
+     * @param select    the {@link PathSelector} path that selects the maps holding the test data relative to the
+     *                  result of the OGNL expression
+     * @param parallel  construct the test records in parallel
+     * @param rerun     the display names of the test records to provide, or {@code null} to provide all
+     * @return the test records from the Yaml structure read from the file
+     */
+    private Stream<TestRecord> getParameters(String resource, YamlText text, String ognl, String select, boolean parallel, Set<String> rerun) {
+        try {
+            if (ognl.length() == 0) {
+                return constructRecords(resource, text, select, parallel, rerun);
+            }
+            if (parallel) {
+                throw new ExtensionConfigurationException(format("The OGNL expression '%s' cannot be used with parallel construction, use 'select' instead.", ognl));
+            }
+            final Map<String, Map<String, Object>> result;
+            try (final var reader = text.open()) {
+                result = YAML.get().load(reader);
+            }
+            final Map<String, Map<String, Object>> start = (Map<String, Map<String, Object>>) Ognl.getValue(ognl, (Object) result, Map.class);
+            final Stream<Map.Entry<String, Map<String, Object>>> entries;
+            if (select.length() > 0) {
+                entries = PathSelector.compile(select).records(start);
+            } else {
+                entries = start.entrySet().stream();
+            }
+            return entries.filter(entry -> rerun == null || rerun.contains(entry.getKey()))
+                .map(entry -> new TestRecord(entry.getKey(), entry.getValue(), TestRecord.UNKNOWN_LINE));
+        } catch (ParserException e) {
+            throw new ExtensionConfigurationException(format("The Yaml file '%s' is erroneous.", resource), e);
+        } catch (OgnlException e) {
+            throw new ExtensionConfigurationException(format("The Ognl file '%s' is erroneous.", ognl), e);
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException(format("The source '%s' is not readable.", resource), e);
+        }
+    }
+
+    /**
+     * Construct the test records one by one.
+     * <p>
+     * The Yaml source is composed to a node tree, and the node tree is split along the test records. The key and the
+     * value of every record is constructed separately, including the objects of the classes specified with {@code !!}
+     * tags. The records are returned in the order they are in the source.
+     * <p>
+     * When {@code parallel} is {@code true} the records are constructed in a parallel stream, which runs on the JUnit
+     * worker pool when the provider is called from a JUnit worker thread, and on the common fork-join pool otherwise.
+     * The OGNL expression cannot be used in this case, because it needs the whole structure constructed. The path
+     * {@code select} can be used instead.
+     * <p>
+     * When only some of the records are to be provided, the others are not constructed at all.
+     * <p>
+     * A selected map holding the records in the tabular form (see {@link TableParser}) is parsed by the table parser,
+     * and the records are not constructed from Yaml nodes.
+     *
+     * @param resource  the name of the resource used in error messages
+     * @param text      the Yaml formatted source
+     * @param select    the {@link PathSelector} path that selects the maps holding the test data
+     * @param parallel  construct the records in parallel
+     * @param rerun     the display names of the test records to provide, or {@code null} to provide all
+     * @return the test records in the order of the source
+     */
+    private Stream<TestRecord> constructRecords(String resource, YamlText text, String select, boolean parallel, Set<String> rerun) throws IOException {
+        final List<PendingRecord> records = composeRecords(resource, text, select, rerun);
+        if (!parallel) {
+            // a record is removed from the list when it is constructed, so that its nodes can be garbage collected
+            return IntStream.range(0, records.size()).mapToObj(i -> records.set(i, null).construct());
+        }
+        try {
+            return records.parallelStream().map(PendingRecord::construct).collect(Collectors.toList()).stream();
+        } catch (ClassCastException cce) {
+            throw new ExtensionConfigurationException(format("The YAML source '%s' is not valid.", resource));
+        }
+    }
+
+    /**
+     * Get the test records for the lazy construction.
+     *
+     * @param testMethod the test method used in error messages
+     * @param resource   the name of the resource file that contains the Yaml/Jamal formatted parameters
+     * @param text       the Yaml formatted source, already processed by Jamal
+     * @param yamlSource the composed annotation
+     * @param rerun      the display names of the test records to provide, or {@code null} to provide all
+     * @return the test records composed, but not constructed, in the order of the source
      */
-    private Map<String, Map<String, Object>> getParameters(Class<?> testClass, Jamal jamal, String resource, String ognl) throws URISyntaxException {
+    private List<PendingRecord> getPendingRecords(Method testMethod, String resource, YamlText text, YamlSource yamlSource, Set<String> rerun) {
+        if (yamlSource.ognl().length() != 0) {
+            throw new ExtensionConfigurationException(format("The OGNL expression '%s' cannot be used with lazy construction, use 'select' instead.", yamlSource.ognl()));
+        }
+        if (yamlSource.parallel() || yamlSource.columnar() || yamlSource.deduplicate()) {
+            throw new ExtensionConfigurationException(format("The test %s::%s() cannot use lazy construction together with parallel construction, columnar storage or deduplication.",
+                testMethod.getDeclaringClass().getName(), testMethod.getName()));
+        }
+        try {
+            return composeRecords(resource, text, yamlSource.select(), rerun);
+        } catch (ParserException e) {
+            throw new ExtensionConfigurationException(format("The Yaml file '%s' is erroneous.", resource), e);
+        } catch (IOException e) {
+            throw new ExtensionConfigurationException(format("The source '%s' is not readable.", resource), e);
+        }
+    }
+
+    /**
+     * Compose the Yaml source to a node tree and split it along the test records without constructing them.
+     * <p>
+     * Before the tree is split the merge keys are resolved and the duplicated keys are removed in all the mappings,
+     * the same way as loading the whole structure would do, see {@link NodeConstructor#flatten(Node)}. That way a
+     * record level merge key works, and a duplicated display name results only one test record, the last one. It
+     * also means that the records can be constructed in parallel even when they share nodes through aliases,
+     * because the construction does not modify the node tree any more.
+     *
+     * @param resource the name of the resource used in error messages
+     * @param text     the Yaml formatted source
+     * @param select   the {@link PathSelector} path that selects the maps holding the test data
+     * @param rerun    the display names of the test records to provide, or {@code null} to provide all
+     * @return the test records in the order of the source
+     */
+    private List<PendingRecord> composeRecords(String resource, YamlText text, String select, Set<String> rerun) throws IOException {
+        final Node root;
+        try (final var reader = text.open()) {
+            root = YAML.get().compose(reader);
+        }
+        if (!(root instanceof MappingNode)) {
+            throw new ExtensionConfigurationException(format("The YAML source '%s' is not valid.", resource));
+        }
+        new NodeConstructor().flatten(root);
+        final Stream<MappingNode> maps = select.length() > 0 ? PathSelector.compile(select).nodes(root) : Stream.of((MappingNode) root);
+        final List<PendingRecord> records = new ArrayList<>();
+        for (final var map : (Iterable<MappingNode>) maps::iterator) {
+            if (TableParser.table(map) != null) {
+                for (final var record : TableParser.parse(resource, map, CONSTRUCTOR.get()::constructPlain)) {
+                    if (rerun == null || rerun.contains(record.displayName)) {
+                        records.add(new PendingRecord(record));
+                    }
+                }
+            } else {
+                for (final var tuple : map.getValue()) {
+                    if (rerun == null || tuple.getKeyNode() instanceof ScalarNode && rerun.contains(((ScalarNode) tuple.getKeyNode()).getValue())) {
+                        records.add(new PendingRecord(tuple));
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Get the Yaml formatted source of the test parameters.
+     * <p>
+     * When Jamal processing is disabled and the source is a resource, then the resource is not read here. It is read
+     * later directly by the Yaml parser, and decompressed on the fly if it is compressed. That way the whole content
+     * of a large resource is never in the memory as a string.
+     * <p>
+     * Otherwise, the source is read and processed by Jamal only once for each resource and Jamal configuration in a
+     * test class, and then it is stored in the cache. The cache is the store of the test class, so that the processed
+     * sources, which can be large, are not kept after the tests of the class have finished.
+     *
+     * @param cache     the store of the test class shared by all the threads executing its tests
+     * @param testClass the class that the test method is in
+     * @param jamal     the Jamal annotation
+     * @param resource  the name of the resource file or the Yaml/Jamal content itself
+     * @return the Yaml formatted source
+     */
+    private YamlText getSource(ExtensionContext.Store cache, Class<?> testClass, Jamal jamal, String resource) {
+        final var inline = resource.contains("\n");
+        if (!inline && !jamal.enabled()) {
+            return YamlText.of(testClass, resource);
+        }
+        final var location = inline ? resource : String.valueOf(testClass.getResource(resource));
+        final var key = format("%s|%s|%s|%s|%s", jamal.enabled(), jamal.open(), jamal.close(), jamal.dump(), location);
+        return YamlText.of(cache.getOrComputeIfAbsent(key, k -> processSource(testClass, jamal, resource), String.class));
+    }
+
+    private String processSource(Class<?> testClass, Jamal jamal, String resource) {
         final StringBuilder sb = readResource(testClass, resource);
         try {
             final File file;
@@ -193,24 +615,16 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
             } else {
                 file = Paths.get(requireNonNull(testClass.getResource(resource)).toURI()).toFile().getAbsoluteFile();
             }
-            final String processed = processWithJamal(jamal, file, sb);
-            final Map<String, Map<String, Object>> result = yaml.load(processed);
-            if (ognl.length() > 0) {
-                return (Map<String, Map<String, Object>>) Ognl.getValue(ognl, (Object) result, Map.class);
-            } else {
-                return result;
-            }
+            return processWithJamal(jamal, file, sb);
         } catch (BadSyntax e) {
             throw new ExtensionConfigurationException(format("The source '%s' is not a valid Jamal source.", resource), e);
-        } catch (ParserException e) {
-            throw new ExtensionConfigurationException(format("The Yaml file '%s' is erroneous.", resource), e);
-        } catch (OgnlException e) {
-            throw new ExtensionConfigurationException(format("The Ognl file '%s' is erroneous.", ognl), e);
+        } catch (URISyntaxException e) {
+            throw new ExtensionConfigurationException(format("The source '%s' cannot be located.", resource), e);
         }
     }
 
     /**
-     * Reads the content of the resource.
+     * Reads the content of the resource. Resources compressed with gzip are decompressed.
      *
      * @param testClass the class that contains the test method. The resource will be read from the same
      *                  package/directory where the class file is.
@@ -224,10 +638,7 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
             return new StringBuilder(resource);
         }
         final StringBuilder sb = new StringBuilder();
-        try (final var is = testClass.getResourceAsStream(resource)) {
-            if (is == null) {
-                throw new ExtensionConfigurationException(format("The source '%s' is not found.", resource));
-            }
+        try (final var is = YamlText.openResource(testClass, resource)) {
             try (InputStreamReader isReader = new InputStreamReader(is, StandardCharsets.UTF_8);
                  BufferedReader reader = new BufferedReader(isReader)) {
                 String str;
@@ -276,6 +687,9 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
      * Print the result of the Jamal processing into an output file in case there is a Jamal annotation with the
      * parameter {@code dump}, that specifies the output file. This file is not used by the application. It is there for
      * debug purposes only if you want to see what Yaml was created from the Jamal file.
+     * <p>
+     * The output is written into a temporary file first and then moved to the final place. That way a test running in
+     * parallel, and reading the same file never sees a partially written file.
      *
      * @param jamal     is the Jamal annotation
      * @param file      the input file or null in case the input comes from the annotation string
@@ -284,8 +698,10 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
     private void createDumpFile(Jamal jamal, File file, String processed) {
         if (jamal.dump().length() > 0) {
             final File out = getDumpFile(jamal.dump(), file);
-            try (final var fos = new FileOutputStream(out)) {
-                fos.write(processed.getBytes(StandardCharsets.UTF_8));
+            try {
+                final var tmp = Files.createTempFile(out.getAbsoluteFile().getParentFile().toPath(), "yamaledt-", ".tmp");
+                Files.write(tmp, processed.getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, out.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             } catch (IOException e) {
                 throw new ExtensionConfigurationException(format("Cannot write the dump file '%s'.", jamal.dump()), e);
             }
@@ -415,7 +831,7 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
      * method class and finally with the method.
      * This way a parameter defined closer to the method overrides the parameter defined on a higher level.
      * <p>
-     * The OGNL expression and the value parameter is inherited when not empty.
+     * The OGNL expression, the select path and the value parameter is inherited when not empty.
      *
      * @param annotations the list of annotations from the method and from the enclosing classes in the order
      *                    from inside to outside.
@@ -428,10 +844,17 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
             if (annotation.ognl().length() != 0) {
                 yamlSource.ognl = annotation.ognl();
             }
+            if (annotation.select().length() != 0) {
+                yamlSource.select = annotation.select();
+            }
             if (annotation.value().length() != 0) {
                 yamlSource.value = annotation.value();
             }
             yamlSource.strict = annotation.strict();
+            yamlSource.parallel = annotation.parallel();
+            yamlSource.columnar = annotation.columnar();
+            yamlSource.lazy = annotation.lazy();
+            yamlSource.deduplicate = annotation.deduplicate();
         }
         return yamlSource;
     }
@@ -456,5 +879,121 @@ public class YamalArgumentsProvider implements ArgumentsProvider {
                 YAML_SOURCE)));
     }
 
+    /**
+     * A test record split from the composed Yaml node tree, but not constructed yet. Records read from a table are
+     * already constructed when they are parsed.
+     */
+    private static final class PendingRecord {
+        private final NodeTuple tuple;
+        private final TestRecord record;
+
+        private PendingRecord(NodeTuple tuple) {
+            this.tuple = tuple;
+            this.record = null;
+        }
+
+        private PendingRecord(TestRecord record) {
+            this.tuple = null;
+            this.record = record;
+        }
 
+        /**
+         * @return the test record holding the display name and the line, the parameters are not constructed and may
+         * be {@code null}
+         */
+        TestRecord head() {
+            if (record != null) {
+                return record;
+            }
+            return new TestRecord((String) CONSTRUCTOR.get().construct(tuple.getKeyNode()), null, line());
+        }
+
+        @SuppressWarnings("unchecked")
+        TestRecord construct() {
+            if (record != null) {
+                return record;
+            }
+            final var constructor = CONSTRUCTOR.get();
+            return new TestRecord(
+                (String) constructor.construct(tuple.getKeyNode()),
+                (Map<String, Object>) constructor.construct(tuple.getValueNode()),
+                line());
+        }
+
+        private int line() {
+            return tuple.getKeyNode().getStartMark().getLine() + 1;
+        }
+    }
+
+    /**
+     * A Yaml constructor that can construct the Java object from any node of a composed node tree. It is used to
+     * construct the test records one by one. The instances are not thread safe, every thread uses its own.
+     */
+    private static class NodeConstructor extends Constructor {
+        private final Resolver resolver = new Resolver();
+
+        Object construct(Node node) {
+            return constructDocument(node);
+        }
+
+        /**
+         * Resolve the merge keys and remove the duplicated keys, keeping the last one, in all the mappings of the
+         * node tree. The construction of a mapping does the same, but it modifies the mapping node in place. Doing it
+         * once for the whole tree before the construction, the node tree is not modified later, and the records can
+         * be constructed separately, even in parallel, also when they share nodes through aliases.
+         * <p>
+         * The instance flattening the tree should not be used to construct the records. Finding the duplicated keys of
+         * the root map constructs all the display names, and the internal sets of the constructor grow to the number
+         * of the records. These sets are cleared, but not shrunk, at the start of every construction, which would
+         * make constructing the records one by one quadratic.
+         *
+         * @param root the root of the composed node tree
+         */
+        void flatten(Node root) {
+            flatten(root, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+
+        private void flatten(Node node, Set<Node> visited) {
+            if (!visited.add(node)) {
+                return;
+            }
+            if (node instanceof MappingNode) {
+                final var mapping = (MappingNode) node;
+                flattenMapping(mapping);
+                // the merge keys are resolved, constructing the mapping must not merge again
+                mapping.setMerged(false);
+                for (final var tuple : mapping.getValue()) {
+                    flatten(tuple.getKeyNode(), visited);
+                    flatten(tuple.getValueNode(), visited);
+                }
+            } else if (node instanceof SequenceNode) {
+                for (final var element : ((SequenceNode) node).getValue()) {
+                    flatten(element, visited);
+                }
+            }
+        }
+
+        /**
+         * Construct the value of a plain scalar, the same way as if it was in the Yaml source without quotes.
+         *
+         * @param value the text of the scalar
+         * @return the value, e.g. an Integer, a Double, a Boolean, a String or null
+         */
+        Object constructPlain(String value) {
+            final var tag = resolver.resolve(NodeId.scalar, value, true);
+            return constructDocument(new ScalarNode(tag, value, null, null, DumperOptions.ScalarStyle.PLAIN));
+        }
+
+        /**
+         * Construct the value of a scalar read from the parser events. The node is created without the marks, so it
+         * does not reference the buffer of the reader.
+         *
+         * @param tag   the resolved tag of the scalar
+         * @param event the parser event of the scalar
+         * @return the value of the scalar
+         */
+        Object constructScalar(Tag tag, ScalarEvent event) {
+            return constructDocument(new ScalarNode(tag, event.getValue(), null, null, event.getScalarStyle()));
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * An extension measuring the execution time and the memory allocation of the individual test invocations created by
+ * the {@link YamalArgumentsProvider}. Every measurement is linked to the resource, the display name, and the line of
+ * the test record in the Yaml source. At the end of the test run the measurements are written into a report file
+ * sorted by the execution time, the slowest first.
+ * <p>
+ * To use it, annotate the test class with {@code @ExtendWith(YamalProfiler.class)}. The report is written to the file
+ * {@value #DEFAULT_REPORT} by default. It can be changed using the JUnit configuration parameter (or system
+ * property) {@value #REPORT_PARAMETER}.
+ * <p>
+ * The line of the record is not known when the test data is selected using an OGNL expression. In that case the
+ * line is reported as {@code ?}. When the source is processed by Jamal, the line is the line in the output of
+ * Jamal, which can be saved using the {@link Jamal#dump()} parameter, and not the line in the {@code .jam} file.
+ * The allocation is measured only when the JVM supports measuring the memory
+ * allocated by a thread, otherwise it is reported as {@code ?}.
+ */
+public class YamalProfiler implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    public static final String REPORT_PARAMETER = "yamaledt.profile.report";
+    public static final String DEFAULT_REPORT = "target/yamaledt-profile.txt";
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(YamalProfiler.class);
+    private static final String START = "start";
+
+    private static class Measurement {
+        final long nanos;
+        final long allocated;
+        final String source;
+        final String test;
+        final String displayName;
+
+        private Measurement(long nanos, long allocated, String source, String test, String displayName) {
+            this.nanos = nanos;
+            this.allocated = allocated;
+            this.source = source;
+            this.test = test;
+            this.displayName = displayName;
+        }
+    }
+
+    /**
+     * Collects the measurements during the test run and writes the report when the root extension context is closed.
+     */
+    private static class Report implements ExtensionContext.Store.CloseableResource {
+        private final File file;
+        private final Queue<Measurement> measurements = new ConcurrentLinkedQueue<>();
+
+        private Report(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void close() {
+            final var sorted = measurements.stream()
+                .sorted(Comparator.comparingLong((Measurement m) -> m.nanos).reversed())
+                .collect(Collectors.toList());
+            final var dir = file.getAbsoluteFile().getParentFile();
+            try {
+                Files.createDirectories(dir.toPath());
+                final var tmp = Files.createTempFile(dir.toPath(), "yamaledt-", ".tmp");
+                try (final var out = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+                    out.printf("# %d test invocations sorted by the execution time%n", sorted.size());
+                    out.printf("# the source lines of Jamal processed sources are the lines of the Jamal output, see @Jamal(dump=...)%n");
+                    out.printf("# %12s %16s  %s  %s  %s%n", "time [ms]", "allocated [B]", "source", "test", "record");
+                    for (final var m : sorted) {
+                        out.printf("%14.3f %16s  %s  %s  %s%n", m.nanos / 1_000_000.0,
+                            m.allocated < 0 ? "?" : Long.toString(m.allocated), m.source, m.test, m.displayName);
+                    }
+                }
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new ExtensionConfigurationException(format("Cannot write the profile report '%s'.", file), e);
+            }
+        }
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(START, new long[]{allocatedBytes(), System.nanoTime()});
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        final var nanos = System.nanoTime();
+        final var allocated = allocatedBytes();
+        final var start = context.getStore(NAMESPACE).remove(START, long[].class);
+        final var sources = RecordSources.of(context);
+        final var index = RecordSources.index(context);
+        if (start == null || sources.isEmpty() || !sources.get().contains(index)) {
+            return;
+        }
+        final var line = sources.get().line(index);
+        final var testMethod = context.getRequiredTestMethod();
+        final var measurement = new Measurement(
+            nanos - start[1],
+            allocated < 0 || start[0] < 0 ? -1 : allocated - start[0],
+            sources.get().resource + ":" + (line == TestRecord.UNKNOWN_LINE ? "?" : Integer.toString(line)),
+            testMethod.getDeclaringClass().getName() + "::" + testMethod.getName(),
+            sources.get().displayName(index));
+        context.getRoot().getStore(NAMESPACE)
+            .getOrComputeIfAbsent(Report.class, k -> new Report(reportFile(context)), Report.class)
+            .measurements.add(measurement);
+    }
+
+    private static File reportFile(ExtensionContext context) {
+        return new File(context.getConfigurationParameter(REPORT_PARAMETER).orElse(DEFAULT_REPORT));
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread so far, or -1 if it cannot be measured
+     */
+    private static long allocatedBytes() {
+        final var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final var threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
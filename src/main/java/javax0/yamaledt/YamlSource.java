@@ -1,5 +1,6 @@
 package javax0.yamaledt;
 
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 
 import java.lang.annotation.Annotation;
@@ -11,6 +12,7 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD, ElementType.TYPE})
 @ArgumentsSource(YamalArgumentsProvider.class)
+@ExtendWith({FailedRecords.class, LazyArgumentsRelease.class})
 public @interface YamlSource {
 
     String UNDEFINED = "\u0000";
@@ -22,7 +24,12 @@ public @interface YamlSource {
     class Collected implements YamlSource {
         String value = "";
         String ognl = "";
+        String select = "";
         boolean strict = false;
+        boolean parallel = false;
+        boolean columnar = false;
+        boolean lazy = false;
+        boolean deduplicate = false;
         Jamal jamal;
 
         @Override
@@ -35,6 +42,11 @@ public @interface YamlSource {
             return ognl;
         }
 
+        @Override
+        public String select() {
+            return select;
+        }
+
         @Override
         public Jamal jamal() {
             return jamal;
@@ -45,6 +57,26 @@ public @interface YamlSource {
             return strict;
         }
 
+        @Override
+        public boolean parallel() {
+            return parallel;
+        }
+
+        @Override
+        public boolean columnar() {
+            return columnar;
+        }
+
+        @Override
+        public boolean lazy() {
+            return lazy;
+        }
+
+        @Override
+        public boolean deduplicate() {
+            return deduplicate;
+        }
+
         @Override
         public Class<? extends Annotation> annotationType() {
             return YamlSource.class;
@@ -62,6 +94,18 @@ public @interface YamlSource {
      */
     String ognl() default "";
 
+    /**
+     * A path selecting one or more maps that contain the test data. The path is a list of keys separated by {@code .}
+     * characters. A key can also be the {@code *} wildcard matching all the keys. Several paths can be given separated
+     * by the {@code |} character. For example {@code *.cases} selects the {@code cases} map of every top level entry.
+     * The test records of all the selected maps are used as test data.
+     * <p>
+     * If there is an OGNL expression defined then the path is relative to the result of the OGNL expression.
+     *
+     * @return the select path where the test data is
+     */
+    String select() default "";
+
     /**
      * @return the jamal annotation. This is here as a parameter to support those developers who do not read the
      * documentation and find out this possibility using the automcomplete feature of the IDE. Otherwise use this
@@ -77,4 +121,58 @@ public @interface YamlSource {
      * @return false by default
      */
     boolean strict() default false;
+
+    /**
+     * Setting this {@code true} will construct the Java objects of the test records in parallel. It is useful when
+     * there are many test records holding large or complex objects, and constructing them takes long. The test records
+     * are still provided in the same order as they are in the Yaml file.
+     * <p>
+     * The records are constructed using a parallel stream. It runs on the JUnit worker pool when JUnit executes the
+     * tests in parallel, and on the common fork-join pool otherwise.
+     * <p>
+     * The parameter {@link #ognl()} cannot be used in this case. Use {@link #select()} to select the test data.
+     *
+     * @return false by default
+     */
+    boolean parallel() default false;
+
+    /**
+     * Setting this {@code true} will store the test records in a compact, column oriented form. Integer, long and
+     * double values are stored in primitive arrays, and the keys of the records are stored only once. The values are
+     * boxed only when the arguments of a test invocation are created. It is useful for large data sets holding mainly
+     * numbers.
+     * <p>
+     * When the test records hold only scalar values, and neither {@link #ognl()} nor {@link #select()} is used, the
+     * records are read directly from the events of the Yaml parser into the columns, without composing the node tree
+     * of the whole source. Otherwise, the records are constructed from the node tree one by one, and the nodes of a
+     * record are released after the record was stored.
+     * <p>
+     * The parameter {@link #parallel()} cannot be used in this case.
+     *
+     * @return false by default
+     */
+    boolean columnar() default false;
+
+    /**
+     * Setting this {@code true} will construct the objects of a test record only right before the test invocation
+     * using the record is executed, and release them after the invocation. Only the display names are read up front.
+     * It is useful when there are many test records holding large objects, and only some of them are executed, or the
+     * objects of all the test records do not fit into the memory at the same time.
+     * <p>
+     * The parameters {@link #ognl()}, {@link #parallel()}, {@link #columnar()} and {@link #deduplicate()} cannot be
+     * used in this case.
+     *
+     * @return false by default
+     */
+    boolean lazy() default false;
+
+    /**
+     * Setting this {@code true} will share the structurally equal strings, numbers, maps and lists of the test records,
+     * keeping only a single instance of each. It is useful when the same nested structures are repeated in many test
+     * records, for example when the Yaml is generated by Jamal. The shared maps and lists are unmodifiable, the tests
+     * must not modify them. Maps and lists containing objects of other classes are not shared.
+     *
+     * @return false by default
+     */
+    boolean deduplicate() default false;
 }
@@ -0,0 +1,126 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPInputStream;
+
+import static java.lang.String.format;
+
+/**
+ * The Yaml formatted source of the test records.
+ * <p>
+ * It is either a string, when the source was given in the annotation or was processed by Jamal, or a resource, which
+ * is read directly by the Yaml parser without loading it into the memory first. Resources compressed with gzip are
+ * decompressed while they are read. A resource is recognized as compressed by the gzip magic bytes at its start,
+ * independent of the name of the resource, but usually they are named {@code .yaml.gz} or {@code .yaml.jam.gz}.
+ */
+final class YamlText {
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private final String text;
+    private final Class<?> testClass;
+    private final String resource;
+
+    private YamlText(String text, Class<?> testClass, String resource) {
+        this.text = text;
+        this.testClass = testClass;
+        this.resource = resource;
+    }
+
+    /**
+     * @param text the Yaml formatted text
+     * @return the source holding the text in memory
+     */
+    static YamlText of(String text) {
+        return new YamlText(text, null, null);
+    }
+
+    /**
+     * @param testClass the class relative to which the resource is
+     * @param resource  the name of the resource
+     * @return the source that reads the resource every time it is parsed
+     */
+    static YamlText of(Class<?> testClass, String resource) {
+        return new YamlText(null, testClass, resource);
+    }
+
+    /**
+     * Open the source for reading. The caller has to close the reader.
+     *
+     * @return the reader to read the Yaml formatted source
+     */
+    Reader open() {
+        if (text != null) {
+            return new StringReader(text);
+        }
+        return new InputStreamReader(openResource(testClass, resource), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calculate the SHA-256 hash of the source. If the source is a resource, then it is read again to calculate the
+     * hash.
+     *
+     * @return the hash as a hexadecimal string
+     */
+    String hash() {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            if (text != null) {
+                digest.update(text.getBytes(StandardCharsets.UTF_8));
+            } else {
+                try (final var is = new DigestInputStream(openResource(testClass, resource), digest)) {
+                    final var buffer = new byte[8192];
+                    while (is.read(buffer) != -1) {
+                        // reading is only to calculate the digest
+                    }
+                } catch (IOException e) {
+                    throw new ExtensionConfigurationException(format("The source '%s' is not readable.", resource), e);
+                }
+            }
+            return format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Open the resource for reading. If the resource is compressed with gzip, then the returned stream decompresses it.
+     *
+     * @param testClass the class that contains the test method. The resource is read from the same package/directory
+     *                  where the class file is.
+     * @param resource  the name of the resource
+     * @return the input stream providing the uncompressed content of the resource. The caller has to close it.
+     */
+    static InputStream openResource(Class<?> testClass, String resource) {
+        final var is = testClass.getResourceAsStream(resource);
+        if (is == null) {
+            throw new ExtensionConfigurationException(format("The source '%s' is not found.", resource));
+        }
+        try {
+            final var bis = new BufferedInputStream(is);
+            bis.mark(2);
+            final var compressed = bis.read() == GZIP_MAGIC_1 && bis.read() == GZIP_MAGIC_2;
+            bis.reset();
+            return compressed ? new GZIPInputStream(bis) : bis;
+        } catch (IOException ioe) {
+            try {
+                is.close();
+            } catch (IOException suppressed) {
+                ioe.addSuppressed(suppressed);
+            }
+            throw new ExtensionConfigurationException(format("The source '%s' is not readable.", resource), ioe);
+        }
+    }
+}
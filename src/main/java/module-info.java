@@ -8,5 +8,6 @@ module yamaledt {
     requires jamal.api;
     requires org.yaml.snakeyaml;
     requires ognl;
+    requires jdk.management;
     exports javax0.yamaledt;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Condition enabling the sample test classes only when they are executed using the {@code EngineTestKit} by another
+ * test. Some samples fail on purpose, and they must not fail when the IDE runs all the tests of the package.
+ */
+public class EngineTestKitOnly implements ExecutionCondition {
+    static final String PARAMETER = "yamaledt.test.engineTestKit";
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return context.getConfigurationParameter(PARAMETER).map(Boolean::parseBoolean).orElse(false)
+            ? ConditionEvaluationResult.enabled("executed by the EngineTestKit")
+            : ConditionEvaluationResult.disabled("sample executed only by the EngineTestKit");
+    }
+}
@@ -0,0 +1,78 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class TestColumnarRecords {
+
+    @Test
+    void testIntLongAndDoubleColumns() {
+        final var table = new ColumnarRecords();
+        for (int i = 0; i < 100; i++) {
+            table.add(record("record " + i, "int", i, "long", 10_000_000_000L + i, "double", i / 4.0));
+        }
+        Assertions.assertEquals(100, table.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals("record " + i, table.displayName(i));
+            Assertions.assertEquals(i, table.get(i, "int"));
+            Assertions.assertEquals(10_000_000_000L + i, table.get(i, "long"));
+            Assertions.assertEquals(i / 4.0, table.get(i, "double"));
+        }
+    }
+
+    @Test
+    void testPrimitiveColumnSwitchesToObjects() {
+        final var table = new ColumnarRecords();
+        for (int i = 0; i < 20; i++) {
+            table.add(record("int " + i, "value", i));
+        }
+        table.add(record("long", "value", 5L));
+        table.add(record("string", "value", "five"));
+        table.add(record("null", "value", null));
+        table.add(record("list", "value", List.of(1, 2)));
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(i, table.get(i, "value"));
+        }
+        Assertions.assertEquals(5L, table.get(20, "value"));
+        Assertions.assertEquals("five", table.get(21, "value"));
+        Assertions.assertNull(table.get(22, "value"));
+        Assertions.assertEquals(List.of(1, 2), table.get(23, "value"));
+    }
+
+    @Test
+    void testDoubleColumnSwitchesToObjectsOnInteger() {
+        final var table = new ColumnarRecords();
+        table.add(record("double", "value", 1.5));
+        table.add(record("int", "value", 2));
+        Assertions.assertEquals(1.5, table.get(0, "value"));
+        Assertions.assertEquals(2, table.get(1, "value"));
+    }
+
+    @Test
+    void testMissingValues() {
+        final var table = new ColumnarRecords();
+        table.add(record("first", "a", 1));
+        table.add(record("second", "b", 2L));
+        table.add(new TestRecord("third", null, 3));
+        table.add(record("fourth", "a", 4));
+        Assertions.assertEquals(1, table.get(0, "a"));
+        Assertions.assertNull(table.get(1, "a"));
+        Assertions.assertNull(table.get(2, "a"));
+        Assertions.assertEquals(4, table.get(3, "a"));
+        Assertions.assertNull(table.get(0, "b"));
+        Assertions.assertEquals(2L, table.get(1, "b"));
+        Assertions.assertNull(table.get(0, "c"));
+        Assertions.assertEquals("third", table.displayName(2));
+    }
+
+    private static TestRecord record(String displayName, Object... keyValues) {
+        final var parameters = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            parameters.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return new TestRecord(displayName, parameters, 1);
+    }
+}
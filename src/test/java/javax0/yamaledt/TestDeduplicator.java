@@ -0,0 +1,74 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestDeduplicator {
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "record:\n" +
+        "  first: {name: Peter, tags: [a, b], limits: {daily: 100}}\n" +
+        "  second: {name: Peter, tags: [a, b], limits: {daily: 100}}\n" +
+        "  holder: {name: Peter, custom: !!javax0.yamaledt.CustomClass {serial: 1}}\n",
+        deduplicate = true, strict = true)
+    @SuppressWarnings("unchecked")
+    void testRepeatedStructuresAreShared(DisplayName dn,
+                                         @Name("first") Map<String, Object> first,
+                                         @Name("second") Map<String, Object> second,
+                                         @Name("holder") Map<String, Object> holder) {
+        Assertions.assertSame(first, second);
+        final var tags = (List<Object>) first.get("tags");
+        Assertions.assertSame(tags, second.get("tags"));
+        Assertions.assertSame(first.get("limits"), second.get("limits"));
+        Assertions.assertSame(first.get("name"), holder.get("name"));
+        Assertions.assertEquals(List.of("a", "b"), tags);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> first.put("name", "Paul"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tags.add("c"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> ((Map<String, Object>) first.get("limits")).clear());
+
+        Assertions.assertEquals(1, ((CustomClass) holder.get("custom")).serial);
+        holder.put("name", "Paul");
+        Assertions.assertEquals("Paul", holder.get("name"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "record:\n" +
+        "  list: &list [a, *list]\n" +
+        "  map: &map {name: a, self: *map}\n",
+        deduplicate = true, strict = true)
+    void testRecursiveStructuresAreNotShared(DisplayName dn,
+                                             @Name("list") List<Object> list,
+                                             @Name("map") Map<String, Object> map) {
+        Assertions.assertSame(list, list.get(1));
+        Assertions.assertSame(map, map.get("self"));
+        list.add("b");
+        map.put("other", "b");
+    }
+
+    @Test
+    void testParameterNamesAreShared() {
+        final var deduplicator = new Deduplicator();
+        final var first = deduplicator.record(record("first", new String("name"), new String("Peter")));
+        final var second = deduplicator.record(record("second", new String("name"), new String("Paul")));
+        Assertions.assertEquals(List.of("name"), List.copyOf(first.parameters.keySet()));
+        Assertions.assertSame(first.parameters.keySet().iterator().next(), second.parameters.keySet().iterator().next());
+        Assertions.assertEquals("Paul", second.parameters.get("name"));
+        Assertions.assertEquals("second", second.displayName);
+        Assertions.assertEquals(2, second.line);
+        second.parameters.put("other", "b");
+        Assertions.assertEquals("b", second.parameters.get("other"));
+    }
+
+    private static TestRecord record(String displayName, String key, String value) {
+        final var parameters = new LinkedHashMap<String, Object>();
+        parameters.put(key, value);
+        return new TestRecord(displayName, parameters, 2);
+    }
+}
@@ -0,0 +1,80 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.platform.testkit.engine.EngineExecutionResults;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class TestFailedRecords {
+    private static final String SIGNATURE = ".sample(javax0.yamaledt.DisplayName,boolean).txt";
+
+    @ExtendWith(EngineTestKitOnly.class)
+    static class Sample {
+        @ParameterizedTest(name = "{0}")
+        @Jamal(enabled = false)
+        @YamlSource("one:\n" +
+            "  ok: true\n" +
+            "two:\n" +
+            "  ok: false\n" +
+            "three:\n" +
+            "  ok: true\n" +
+            "four:\n" +
+            "  ok: false\n")
+        void sample(DisplayName dn, @Name("ok") boolean ok) {
+            Assertions.assertTrue(ok);
+        }
+    }
+
+    @Test
+    void testOnlyTheFailedRecordsAreRerun(@TempDir Path tmp) throws IOException {
+        execute(tmp, false).testEvents().assertStatistics(stats -> stats.started(4).succeeded(2).failed(2));
+
+        final var file = tmp.resolve(Sample.class.getName() + SIGNATURE);
+        final var lines = Files.readAllLines(file);
+        Assertions.assertEquals(List.of("two", "four"), lines.subList(2, lines.size()));
+
+        execute(tmp, true).testEvents().assertStatistics(stats -> stats.started(2).failed(2));
+    }
+
+    static class Inherited extends Sample {
+    }
+
+    @Test
+    void testInheritedMethodHasAFileForEachTestClass(@TempDir Path tmp) throws IOException {
+        EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(EngineTestKitOnly.PARAMETER, "true")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, tmp.toString())
+            .selectors(selectClass(Sample.class), selectClass(Inherited.class))
+            .execute()
+            .testEvents().assertStatistics(stats -> stats.started(8).failed(4));
+
+        for (final var testClass : List.of(Sample.class, Inherited.class)) {
+            final var lines = Files.readAllLines(tmp.resolve(testClass.getName() + SIGNATURE));
+            Assertions.assertEquals(List.of("two", "four"), lines.subList(2, lines.size()));
+        }
+    }
+
+    @Test
+    void testMethodIsSkippedWhenThereAreNoFailedRecords(@TempDir Path tmp) {
+        execute(tmp, true).containerEvents().assertStatistics(stats -> stats.aborted(1));
+    }
+
+    private static EngineExecutionResults execute(Path dir, boolean rerun) {
+        return EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(EngineTestKitOnly.PARAMETER, "true")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, dir.toString())
+            .configurationParameter(FailedRecords.RERUN_PARAMETER, String.valueOf(rerun))
+            .selectors(selectClass(Sample.class))
+            .execute();
+    }
+}
@@ -0,0 +1,55 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class TestLazyArguments {
+
+    private static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+    public static class Counted {
+        public Counted() {
+            CONSTRUCTED.incrementAndGet();
+        }
+    }
+
+    @ExtendWith(EngineTestKitOnly.class)
+    static class Sample {
+        @ParameterizedTest(name = "{0}")
+        @Jamal(enabled = false)
+        @YamlSource(value = "one:\n" +
+            "  n: 1\n" +
+            "  counted: !!javax0.yamaledt.TestLazyArguments$Counted {}\n" +
+            "two:\n" +
+            "  n: 2\n" +
+            "  counted: !!javax0.yamaledt.TestLazyArguments$Counted {}\n" +
+            "three:\n" +
+            "  n: 3\n" +
+            "  counted: !!javax0.yamaledt.TestLazyArguments$Counted {}\n",
+            lazy = true, strict = true)
+        void sample(DisplayName dn, @Name("n") int n, @Name("counted") Counted counted) {
+            Assertions.assertNotNull(counted);
+            Assertions.assertEquals(n, CONSTRUCTED.get());
+        }
+    }
+
+    @Test
+    void testRecordsAreConstructedRightBeforeTheInvocation(@TempDir Path tmp) {
+        CONSTRUCTED.set(0);
+        EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(EngineTestKitOnly.PARAMETER, "true")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, tmp.toString())
+            .selectors(selectClass(Sample.class))
+            .execute()
+            .testEvents().assertStatistics(stats -> stats.started(3).succeeded(3));
+    }
+}
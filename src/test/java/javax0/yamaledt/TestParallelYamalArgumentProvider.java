@@ -0,0 +1,125 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.testkit.engine.EngineExecutionResults;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Stress test executing the scenarios of {@link TestYamalArgumentProvider} in parallel.
+ * <p>
+ * The test scenarios are executed using the JUnit parallel execution with many workers, and several of these test
+ * executions run at the same time. All of them have to result in the same number of successful tests as the single
+ * threaded execution. The test checks the correctness of the parallel execution only, it does not measure the
+ * speedup.
+ * <p>
+ * The records of a test using {@link YamlSource#parallel()} are constructed in parallel, and they have to be provided
+ * in the order of the source, which is checked on the invocations of the {@link Sample} test. The columnar storage
+ * cannot be used together with the parallel construction, see {@link ColumnarSample}.
+ */
+public class TestParallelYamalArgumentProvider {
+    private static final int WORKERS = 32;
+    private static final int EXECUTIONS = 8;
+
+    @Test
+    void testParallelExecutionsGiveTheSameResultAsSequential(@TempDir Path tmp) throws Exception {
+        final var expected = execute(false, tmp.resolve("sequential")).testEvents().succeeded().count();
+        Assertions.assertTrue(expected > 0);
+
+        final var executor = Executors.newFixedThreadPool(EXECUTIONS);
+        try {
+            final var futures = new ArrayList<Future<EngineExecutionResults>>();
+            for (int i = 0; i < EXECUTIONS; i++) {
+                final var dir = tmp.resolve("parallel" + i);
+                futures.add(executor.submit((Callable<EngineExecutionResults>) () -> execute(true, dir)));
+            }
+            for (final var future : futures) {
+                final var results = future.get();
+                results.containerEvents().assertStatistics(stats -> stats.failed(0));
+                results.testEvents().assertStatistics(stats -> stats.failed(0).aborted(0).succeeded(expected));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static class Sample {
+        @ParameterizedTest(name = "{0}")
+        @Jamal(enabled = false)
+        @YamlSource(value = "testParallelConstructionKeepsTheOrder.yaml", parallel = true)
+        void sample(DisplayName dn, @Name("index") int index, @Name("values") List<Integer> values) {
+            Assertions.assertEquals(String.format("record %03d", index), dn.toString());
+            Assertions.assertEquals(List.of(index, 2 * index, 3 * index), values);
+        }
+    }
+
+    @Test
+    void testParallelConstructionKeepsTheOrderOfTheRecords(@TempDir Path tmp) {
+        final var events = EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, tmp.toString())
+            .selectors(selectClass(Sample.class))
+            .execute()
+            .testEvents();
+        events.assertStatistics(stats -> stats.started(200).succeeded(200));
+        final var expected = IntStream.rangeClosed(1, 200)
+            .mapToObj(i -> String.format("record %03d", i))
+            .collect(Collectors.toList());
+        final var actual = events.started().stream()
+            .map(event -> event.getTestDescriptor().getDisplayName())
+            .collect(Collectors.toList());
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @ExtendWith(EngineTestKitOnly.class)
+    static class ColumnarSample {
+        @ParameterizedTest(name = "{0}")
+        @Jamal(enabled = false)
+        @YamlSource(value = "testParallelConstructionKeepsTheOrder.yaml", parallel = true, columnar = true)
+        void sample(DisplayName dn, @Name("index") int index) {
+        }
+    }
+
+    @Test
+    void testColumnarStorageCannotBeConstructedInParallel(@TempDir Path tmp) {
+        final var failed = EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(EngineTestKitOnly.PARAMETER, "true")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, tmp.toString())
+            .selectors(selectClass(ColumnarSample.class))
+            .execute()
+            .containerEvents().failed();
+        Assertions.assertEquals(1, failed.count());
+        final var exception = failed.stream().findFirst()
+            .flatMap(event -> event.getPayload(TestExecutionResult.class))
+            .flatMap(TestExecutionResult::getThrowable)
+            .orElseThrow();
+        Assertions.assertEquals(ExtensionConfigurationException.class, exception.getClass());
+    }
+
+    private static EngineExecutionResults execute(boolean parallel, Path failedRecords) {
+        return EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, failedRecords.toString())
+            .configurationParameter("junit.jupiter.execution.parallel.enabled", String.valueOf(parallel))
+            .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+            .configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+            .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+            .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", String.valueOf(WORKERS))
+            .selectors(selectClass(TestYamalArgumentProvider.class))
+            .execute();
+    }
+}
@@ -0,0 +1,69 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+
+import java.io.StringReader;
+import java.util.List;
+
+public class TestTableParser {
+
+    private static MappingNode compose(String yaml) {
+        return (MappingNode) new Yaml().compose(new StringReader(yaml));
+    }
+
+    private static List<TestRecord> parse(String yaml) {
+        return TableParser.parse("inline", compose(yaml), value -> value);
+    }
+
+    private static void assertError(String message, String yaml) {
+        final var e = Assertions.assertThrows(ExtensionConfigurationException.class, () -> parse(yaml));
+        Assertions.assertEquals(message, e.getMessage());
+    }
+
+    @Test
+    void testOnlyLiteralBlocksAreTables() {
+        Assertions.assertNotNull(TableParser.table(compose("table: |\n  DisplayName | a\n")));
+        Assertions.assertNotNull(TableParser.table(compose("csv: |\n  DisplayName,a\n")));
+        Assertions.assertNull(TableParser.table(compose("table:\n")));
+        Assertions.assertNull(TableParser.table(compose("table: DisplayName | a\n")));
+        Assertions.assertNull(TableParser.table(compose("csv: \"DisplayName,a\"\n")));
+        Assertions.assertNull(TableParser.table(compose("table: >\n  DisplayName | a\n  x | 1\n")));
+        Assertions.assertNull(TableParser.table(compose("table: |\n  DisplayName | a\nother: 1\n")));
+    }
+
+    @Test
+    void testLinesAndValues() {
+        final var records = parse("table: |\n  | DisplayName | a   | b        |\n\n  # comment\n  | x           | 1   | \"2, \"\"3\"\"\" |\n");
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals("x", records.get(0).displayName);
+        Assertions.assertEquals(5, records.get(0).line);
+        Assertions.assertEquals("1", records.get(0).parameters.get("a"));
+        Assertions.assertEquals("2, \"3\"", records.get(0).parameters.get("b"));
+    }
+
+    @Test
+    void testCellCountDiffersFromTheHeader() {
+        assertError("The line 3 of the table in 'inline' has 3 cells, but the header has 2.",
+            "table: |\n  DisplayName | a\n  x | 1 | 2\n");
+        assertError("The line 3 of the table in 'inline' has 1 cells, but the header has 2.",
+            "csv: |\n  DisplayName,a\n  x\n");
+    }
+
+    @Test
+    void testColumnDefinedTwiceInTheHeader() {
+        assertError("The column 'a' is defined more than once in the header of the table in 'inline' line 2.",
+            "table: |\n  DisplayName | a | a\n");
+    }
+
+    @Test
+    void testMalformedStrings() {
+        assertError("Unterminated string in the table in 'inline' line 3.",
+            "table: |\n  DisplayName | a\n  x | \"1\n");
+        assertError("Unexpected character after a string in the table in 'inline' line 3.",
+            "table: |\n  DisplayName | a\n  x | \"1\" 2\n");
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.params.ParameterizedTest;
 
+import java.util.Map;
+
 import static java.lang.String.format;
 
 public class TestYamalArgumentProvider {
@@ -60,6 +62,20 @@ public class TestYamalArgumentProvider {
     }
     // end snippet
 
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource
+    void sampleTestWithCompressedParameters(@Name("DisplayName") String dn,
+                                            int i,
+                                            @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @YamlSource("testDisplayNameOnly.yaml.jam.gz")
+    void testDisplayNameOnlyCompressed(DisplayName dn) {
+    }
+
     @ParameterizedTest(name = "{0}")
     @Jamal(enabled = false)
     @YamlSource
@@ -84,6 +100,142 @@ public class TestYamalArgumentProvider {
         Assertions.assertEquals(r, format("%d.%s.%s", customer.serial, customer.name, customer.weight));
     }
 
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "Suites.yaml", select = "*.cases")
+    void testSelectWithWildcard(DisplayName dn, @Name("a") int a, @Name("b") int b, @Name("sum") int sum) {
+        Assertions.assertEquals(sum, a + b);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "Suites.yaml", select = "suiteA.cases|\"suiteB\".cases")
+    void testSelectMultiplePaths(DisplayName dn, @Name("a") int a, @Name("b") int b, @Name("sum") int sum) {
+        Assertions.assertEquals(sum, a + b);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "sampleTestWithSimpleParameters.yaml", columnar = true, strict = true)
+    void sampleTestWithColumnarParameters(@Name("DisplayName") String dn,
+                                          int i,
+                                          @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "sampleTestWithObjectParameters.yaml", columnar = true)
+    void sampleTestWithColumnarObjectParameters(@Name("DisplayName") String dn,
+                                                int i,
+                                                @Name("k") Integer k) {
+        Assertions.assertEquals(5, i + (k == null ? 0 : k));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "first: &first {i: 4, k: 1}\n" +
+        "second: *first\n" +
+        "third: {<<: *first, i: 5, k: 0}\n", columnar = true, strict = true)
+    void testColumnarRecordsSharingAnAnchor(@Name("DisplayName") String dn,
+                                            int i,
+                                            @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "sampleTestWithTable.yaml", strict = true)
+    void sampleTestWithTableParameters(@Name("DisplayName") String dn,
+                                       int i,
+                                       @Name("k") int k,
+                                       @Name("text") String text) {
+        Assertions.assertEquals(5, i + k);
+        Assertions.assertTrue(text.startsWith("5") || text.equals("five, \"5\""));
+    }
+
+    /**
+     * A single test record named {@code table} is not a table unless its value is a literal block.
+     *
+     * @param dn the display name of the test
+     */
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource("table:\n")
+    void testRecordNamedTableIsNotATable(@Name("DisplayName") String dn) {
+        Assertions.assertEquals("table", dn);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource("csv: >\n  DisplayName,a\n  x,1\n")
+    void testFoldedCsvIsNotATable(@Name("DisplayName") String dn) {
+        Assertions.assertEquals("csv", dn);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "sampleTestWithCsv.yaml", select = "cases", strict = true)
+    void sampleTestWithCsvParameters(@Name("DisplayName") String dn,
+                                     int i,
+                                     @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    @Jamal(enabled = false)
+    @ParameterizedTest(name = "{0}")
+    @YamlSource(value = "testCustomClassParameter.yaml", lazy = true)
+    void testCustomClassParameterConstructedLazily(@Name("DisplayName") String dn, CustomClass customer, @Name("result") String r) {
+        Assertions.assertEquals(r, format("%d.%s.%s", customer.serial, customer.name, customer.weight));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "common: &common\n" +
+        "  \"merged record\": {int: 1, k: 4}\n" +
+        "cases:\n" +
+        "  <<: *common\n" +
+        "  \"own record\": {int: 2, k: 3}\n",
+        select = "cases", strict = true)
+    void testRecordLevelMergeKey(@Name("DisplayName") String dn, int i, @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    /**
+     * The same display name is used twice. Same as when loading the Yaml into a map, the last one wins, the first
+     * record, which would fail, is not provided.
+     */
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "\"duplicated name\": {int: 1, k: 1}\n" +
+        "\"other name\": {int: 4, k: 1}\n" +
+        "\"duplicated name\": {int: 2, k: 3}\n",
+        strict = true)
+    void testDuplicatedDisplayNameLastWins(@Name("DisplayName") String dn, int i, @Name("k") int k) {
+        Assertions.assertEquals(5, i + k);
+    }
+
+    @Jamal(enabled = false)
+    @ParameterizedTest(name = "{0}")
+    @YamlSource(value = "testSharedAnchorsConstructedInParallel.yaml", select = "cases", parallel = true)
+    void testSharedAnchorsConstructedInParallel(@Name("DisplayName") String dn, @Name("more") Map<String, Object> more, @Name("sum") int sum) {
+        Assertions.assertEquals(sum, (Integer) more.get("int") + (Integer) more.get("k"));
+    }
+
+    @Jamal(enabled = false)
+    @ParameterizedTest(name = "{0}")
+    @YamlSource(value = "testCustomClassParameter.yaml", parallel = true)
+    void testCustomClassParameterConstructedInParallel(@Name("DisplayName") String dn, CustomClass customer, @Name("result") String r) {
+        Assertions.assertEquals(r, format("%d.%s.%s", customer.serial, customer.name, customer.weight));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @Jamal(enabled = false)
+    @YamlSource(value = "Suites.yaml", select = "*.cases", parallel = true)
+    void testSelectConstructedInParallel(DisplayName dn, @Name("a") int a, @Name("b") int b, @Name("sum") int sum) {
+        Assertions.assertEquals(sum, a + b);
+    }
+
     @YamlSource("Shared.yaml")
     @Nested
     class TestInner {
@@ -0,0 +1,53 @@
+package javax0.yamaledt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class TestYamalProfiler {
+
+    @ExtendWith({EngineTestKitOnly.class, YamalProfiler.class})
+    static class Sample {
+        @ParameterizedTest(name = "{0}")
+        @Jamal(enabled = false)
+        @YamlSource("sampleTestWithSimpleParameters.yaml")
+        void sample(DisplayName dn, int i, @Name("k") int k) {
+            Assertions.assertEquals(5, i + k);
+        }
+    }
+
+    @Test
+    void testReportListsEveryRecordWithItsSourceLine(@TempDir Path tmp) throws IOException {
+        final var report = tmp.resolve("profile.txt");
+        EngineTestKit.engine("junit-jupiter")
+            .configurationParameter(EngineTestKitOnly.PARAMETER, "true")
+            .configurationParameter(FailedRecords.DIRECTORY_PARAMETER, tmp.toString())
+            .configurationParameter(YamalProfiler.REPORT_PARAMETER, report.toString())
+            .selectors(selectClass(Sample.class))
+            .execute()
+            .testEvents().assertStatistics(stats -> stats.succeeded(4));
+
+        final var lines = Files.readAllLines(report);
+        Assertions.assertEquals(4, lines.stream().filter(line -> !line.startsWith("#")).count());
+        final var source = "javax0/yamaledt/sampleTestWithSimpleParameters.yaml";
+        assertContains(lines, source + ":1  javax0.yamaledt.TestYamalProfiler$Sample::sample  adding zero to five is five");
+        assertContains(lines, source + ":4  javax0.yamaledt.TestYamalProfiler$Sample::sample  adding one to four is five");
+        assertContains(lines, source + ":7  javax0.yamaledt.TestYamalProfiler$Sample::sample  adding three to two is five");
+        assertContains(lines, source + ":10  javax0.yamaledt.TestYamalProfiler$Sample::sample  using negative number is also okay");
+    }
+
+    private static void assertContains(List<String> lines, String expected) {
+        Assertions.assertTrue(lines.stream().anyMatch(line -> line.endsWith(expected)),
+            () -> "The report does not contain '" + expected + "'\n" + String.join("\n", lines));
+    }
+}